@@ -0,0 +1,104 @@
+/*
+ * Copyright 2019 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.gradle.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.web3j.abi.datatypes.Address;
+
+/**
+ * Benchmarks the generation of a single contract wrapper, from the ABI bytes to the written Java
+ * file. Throughput is reported in contracts per second; run with the <code>gc</code> profiler to
+ * get the allocation per contract (<code>gc.alloc.rate.norm</code>).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ContractWrapperGeneratorBenchmark {
+
+    private static final String BIN =
+            "0x6080604052348015600f57600080fd5b50" + "603f80601d6000396000f3fe";
+
+    @Param({"token", "wide", "nestedStructs", "overloads"})
+    public String corpus;
+
+    @Param({"true", "false"})
+    public boolean useNativeJavaTypes;
+
+    private byte[] abi;
+
+    private ContractWrapperGenerator generator;
+
+    private File outputDir;
+
+    @Setup
+    public void setup() throws IOException {
+        switch (corpus) {
+            case "token":
+                abi = SyntheticAbis.token();
+                break;
+            case "wide":
+                abi = SyntheticAbis.wide(500);
+                break;
+            case "nestedStructs":
+                abi = SyntheticAbis.nestedStructs(8, 20);
+                break;
+            case "overloads":
+                abi = SyntheticAbis.overloads(10, 30);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown corpus " + corpus);
+        }
+
+        generator =
+                new ContractWrapperGenerator(
+                        useNativeJavaTypes,
+                        false,
+                        false,
+                        Address.DEFAULT_LENGTH / Byte.SIZE,
+                        null,
+                        false,
+                        false,
+                        false,
+                        false);
+        outputDir = Files.createTempDirectory("web3j-benchmark").toFile();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        WrapperFiles.delete(outputDir.toPath());
+    }
+
+    @Benchmark
+    public void generate() throws IOException, ClassNotFoundException {
+        generator.generate(
+                "Benchmark",
+                ContractAbi.parse(abi),
+                BIN,
+                outputDir,
+                "org.web3j.benchmark");
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2019 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.gradle.plugin;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/** Builds synthetic contract ABIs of different shapes for benchmarking. */
+final class SyntheticAbis {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final String[] ELEMENTARY_TYPES = {
+        "address", "uint256", "uint8", "int64", "bool", "bytes32", "string", "bytes"
+    };
+
+    private SyntheticAbis() {}
+
+    /** An ERC-20 token ABI, similar to the StandardToken test contract. */
+    static byte[] token() {
+        final ArrayNode abi = OBJECT_MAPPER.createArrayNode();
+        abi.add(function("totalSupply", "view", params(), params("uint256")));
+        abi.add(function("balanceOf", "view", params("address"), params("uint256")));
+        abi.add(function("transfer", "nonpayable", params("address", "uint256"), params("bool")));
+        abi.add(
+                function(
+                        "transferFrom",
+                        "nonpayable",
+                        params("address", "address", "uint256"),
+                        params("bool")));
+        abi.add(function("approve", "nonpayable", params("address", "uint256"), params("bool")));
+        abi.add(
+                function(
+                        "allowance", "view", params("address", "address"), params("uint256")));
+        abi.add(event("Transfer", params("address", "address", "uint256")));
+        abi.add(event("Approval", params("address", "address", "uint256")));
+        return toBytes(abi);
+    }
+
+    /** An ABI with many functions and events of varying elementary parameter types. */
+    static byte[] wide(final int functions) {
+        final ArrayNode abi = OBJECT_MAPPER.createArrayNode();
+        for (int i = 0; i < functions; i++) {
+            final String type = ELEMENTARY_TYPES[i % ELEMENTARY_TYPES.length];
+            final String next = ELEMENTARY_TYPES[(i + 1) % ELEMENTARY_TYPES.length];
+            abi.add(
+                    function(
+                            "function" + i,
+                            i % 2 == 0 ? "view" : "nonpayable",
+                            params(type, next),
+                            params(type)));
+            if (i % 4 == 0) {
+                abi.add(event("Event" + i, params(type, next)));
+            }
+        }
+        return toBytes(abi);
+    }
+
+    /** An ABI with functions taking structs nested up to the given depth. */
+    static byte[] nestedStructs(final int depth, final int functions) {
+        final ArrayNode abi = OBJECT_MAPPER.createArrayNode();
+        for (int i = 0; i < functions; i++) {
+            final ArrayNode inputs = OBJECT_MAPPER.createArrayNode();
+            inputs.add(struct("value", depth));
+            abi.add(function("store" + i, "nonpayable", inputs, params()));
+        }
+        return toBytes(abi);
+    }
+
+    /** An ABI with a few function names, each overloaded many times. */
+    static byte[] overloads(final int names, final int overloads) {
+        final ArrayNode abi = OBJECT_MAPPER.createArrayNode();
+        for (int i = 0; i < names; i++) {
+            for (int j = 0; j < overloads; j++) {
+                final String[] types = new String[j % ELEMENTARY_TYPES.length + 1];
+                for (int k = 0; k < types.length; k++) {
+                    types[k] = ELEMENTARY_TYPES[(j + k) % ELEMENTARY_TYPES.length];
+                }
+                abi.add(function("call" + i, "nonpayable", params(types), params("bool")));
+            }
+        }
+        return toBytes(abi);
+    }
+
+    private static ObjectNode struct(final String name, final int depth) {
+        final ObjectNode struct = param(name, "tuple");
+        struct.put("internalType", "struct Nested.Struct" + depth);
+
+        final ArrayNode components = struct.putArray("components");
+        components.add(param("id", "uint256"));
+        components.add(param("owner", "address"));
+        if (depth > 1) {
+            components.add(struct("child", depth - 1));
+        }
+        return struct;
+    }
+
+    private static ObjectNode function(
+            final String name,
+            final String stateMutability,
+            final ArrayNode inputs,
+            final ArrayNode outputs) {
+        final ObjectNode function = OBJECT_MAPPER.createObjectNode();
+        function.put("type", "function");
+        function.put("name", name);
+        function.put("stateMutability", stateMutability);
+        function.put("constant", stateMutability.equals("view"));
+        function.set("inputs", inputs);
+        function.set("outputs", outputs);
+        return function;
+    }
+
+    private static ObjectNode event(final String name, final ArrayNode inputs) {
+        final ObjectNode event = OBJECT_MAPPER.createObjectNode();
+        event.put("type", "event");
+        event.put("name", name);
+        event.put("anonymous", false);
+        for (int i = 0; i < inputs.size(); i++) {
+            ((ObjectNode) inputs.get(i)).put("indexed", i < 2);
+        }
+        event.set("inputs", inputs);
+        return event;
+    }
+
+    private static ArrayNode params(final String... types) {
+        final ArrayNode params = OBJECT_MAPPER.createArrayNode();
+        for (int i = 0; i < types.length; i++) {
+            params.add(param("param" + i, types[i]));
+        }
+        return params;
+    }
+
+    private static ObjectNode param(final String name, final String type) {
+        final ObjectNode param = OBJECT_MAPPER.createObjectNode();
+        param.put("name", name);
+        param.put("type", type);
+        param.put("internalType", type);
+        return param;
+    }
+
+    private static byte[] toBytes(final ArrayNode abi) {
+        try {
+            return OBJECT_MAPPER.writeValueAsBytes(abi);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
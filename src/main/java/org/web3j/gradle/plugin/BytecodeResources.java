@@ -0,0 +1,236 @@
+/*
+ * Copyright 2019 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.gradle.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+import org.web3j.tx.Contract;
+import org.web3j.utils.Strings;
+
+/**
+ * Moves the bytecode of generated wrappers into compressed resources next to their classes, loaded
+ * on first deployment instead of held in a <code>BINARY</code> string constant. The wrapper is
+ * generated with a placeholder binary, and its <code>BINARY</code> field is replaced with a <code>
+ * loadBinary()</code> method reading the resource through a lazy holder class.
+ *
+ * <p>Only the deployment methods load the binary. Constructors, and so <code>load(...)</code>,
+ * pass {@link Contract#BIN_NOT_PROVIDED} to the base contract, as wrappers generated without a
+ * binary do.
+ */
+final class BytecodeResources {
+
+    static final String EXTENSION = ".bin.gz";
+
+    /** Binary passed to the code generator, keeping the generated field a single line. */
+    static final String PLACEHOLDER = "0x";
+
+    private static final String BINARY = "BINARY";
+
+    private static final String LOAD_BINARY = "loadBinary()";
+
+    private static final String NO_BINARY = "BIN_NOT_PROVIDED";
+
+    private static final Pattern BINARY_FIELD =
+            Pattern.compile("^\\s+public static (?:final )?String BINARY = .*;$");
+
+    /** Declarations of class members, indented once, as opposed to their bodies or comments. */
+    private static final Pattern MEMBER = Pattern.compile("^ {4}[A-Za-z]");
+
+    /** Methods deploying the contract or linking its libraries, see {@link Contract}. */
+    private static final Pattern DEPLOY_METHOD =
+            Pattern.compile("\\s(?:deploy\\w*|getDeploymentBinary|linkLibraries)\\(");
+
+    private BytecodeResources() {}
+
+    /**
+     * Writes the compressed bytecode of a contract next to its wrapper source, and rewrites the
+     * wrapper to load it lazily.
+     */
+    static void extract(
+            final File outputDir,
+            final String contractName,
+            final String packageName,
+            final String bin)
+            throws IOException {
+
+        final String wrapperName = Strings.capitaliseFirstLetter(contractName);
+        final Path packageDir =
+                outputDir.toPath().resolve(packageName.replace('.', File.separatorChar));
+        final Path wrapperFile = packageDir.resolve(wrapperName + ".java");
+        final String resourceName = wrapperName + EXTENSION;
+
+        final String source =
+                new String(Files.readAllBytes(wrapperFile), StandardCharsets.UTF_8);
+        final String wrapper = rewrite(source, wrapperName, resourceName, wrapperFile);
+
+        try (OutputStream output =
+                new GZIPOutputStream(Files.newOutputStream(packageDir.resolve(resourceName)))) {
+            output.write(bin.getBytes(StandardCharsets.US_ASCII));
+        }
+        Files.write(wrapperFile, wrapper.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Replaces the <code>BINARY</code> field with its loader, and the references to it by the
+     * deployment methods and constructors. String and character literals, comments, qualified
+     * names and method calls, e.g. of a contract function named <code>BINARY</code>, are not
+     * references to the field.
+     */
+    private static String rewrite(
+            final String source,
+            final String wrapperName,
+            final String resourceName,
+            final Path wrapperFile)
+            throws IOException {
+
+        final Pattern constructor = Pattern.compile("\\s" + wrapperName + "\\(");
+        final StringBuilder wrapper = new StringBuilder(source.length() + 1024);
+        boolean replaced = false;
+        boolean blockComment = false;
+        String member = "";
+
+        int i = 0;
+        while (i < source.length()) {
+            final boolean lineStart = i == 0 || source.charAt(i - 1) == '\n';
+            if (lineStart && !blockComment) {
+                final int lineEnd = lineEnd(source, i);
+                final String line = source.substring(i, lineEnd);
+                if (!replaced && BINARY_FIELD.matcher(line).matches()) {
+                    wrapper.append(String.join("\n", binaryLoader(wrapperName, resourceName)));
+                    replaced = true;
+                    i = lineEnd;
+                    continue;
+                }
+                if (MEMBER.matcher(line).find()) {
+                    member = line;
+                }
+            }
+
+            final char c = source.charAt(i);
+            final int end;
+            if (blockComment) {
+                end = source.startsWith("*/", i) ? i + 2 : i + 1;
+                blockComment = end == i + 1;
+            } else if (source.startsWith("/*", i)) {
+                end = i + 2;
+                blockComment = true;
+            } else if (source.startsWith("//", i)) {
+                end = lineEnd(source, i);
+            } else if (c == '"' || c == '\'') {
+                end = literalEnd(source, i);
+            } else if (Character.isJavaIdentifierStart(c)) {
+                end = identifierEnd(source, i);
+                if (source.substring(i, end).equals(BINARY) && isReference(source, i, end)) {
+                    if (DEPLOY_METHOD.matcher(member).find()) {
+                        wrapper.append(LOAD_BINARY);
+                    } else if (constructor.matcher(member).find()) {
+                        wrapper.append(NO_BINARY);
+                    } else {
+                        throw new IOException(
+                                "Unexpected BINARY reference in wrapper "
+                                        + wrapperFile
+                                        + ": "
+                                        + member.trim());
+                    }
+                    i = end;
+                    continue;
+                }
+            } else {
+                end = i + 1;
+            }
+            wrapper.append(source, i, end);
+            i = end;
+        }
+        if (!replaced) {
+            throw new IOException("No BINARY field found in wrapper " + wrapperFile);
+        }
+        return wrapper.toString();
+    }
+
+    /** A field reference is neither a member of another class nor a method call. */
+    private static boolean isReference(final String source, final int start, final int end) {
+        int before = start - 1;
+        while (before >= 0 && Character.isWhitespace(source.charAt(before))) {
+            before--;
+        }
+        int after = end;
+        while (after < source.length() && Character.isWhitespace(source.charAt(after))) {
+            after++;
+        }
+        return (before < 0 || source.charAt(before) != '.')
+                && (after == source.length() || source.charAt(after) != '(');
+    }
+
+    private static int lineEnd(final String source, final int start) {
+        final int end = source.indexOf('\n', start);
+        return end < 0 ? source.length() : end;
+    }
+
+    private static int literalEnd(final String source, final int start) {
+        final char quote = source.charAt(start);
+        int i = start + 1;
+        while (i < source.length() && source.charAt(i) != quote && source.charAt(i) != '\n') {
+            i += source.charAt(i) == '\\' ? 2 : 1;
+        }
+        return Math.min(i + 1, source.length());
+    }
+
+    private static int identifierEnd(final String source, final int start) {
+        int i = start + 1;
+        while (i < source.length() && Character.isJavaIdentifierPart(source.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static List<String> binaryLoader(final String wrapperName, final String resourceName) {
+        return List.of(
+                "    public static final String BINARY_RESOURCE = \"" + resourceName + "\";",
+                "",
+                "    /** Loads the contract binary from {@link #BINARY_RESOURCE} to deploy it. */",
+                "    public static String loadBinary() {",
+                "        return BinaryHolder.VALUE;",
+                "    }",
+                "",
+                "    private static final class BinaryHolder {",
+                "        private static final String VALUE = read();",
+                "",
+                "        private static String read() {",
+                "            final java.io.InputStream resource =",
+                "                    "
+                        + wrapperName
+                        + ".class.getResourceAsStream(BINARY_RESOURCE);",
+                "            if (resource == null) {",
+                "                throw new IllegalStateException(",
+                "                        \"Missing contract binary resource \" + BINARY_RESOURCE);",
+                "            }",
+                "            try (java.io.InputStream input =",
+                "                    new java.util.zip.GZIPInputStream(resource)) {",
+                "                return new String(",
+                "                        input.readAllBytes(),"
+                        + " java.nio.charset.StandardCharsets.US_ASCII);",
+                "            } catch (java.io.IOException e) {",
+                "                throw new java.io.UncheckedIOException(e);",
+                "            }",
+                "        }",
+                "    }");
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2019 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.gradle.plugin;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.core.methods.response.AbiDefinition;
+import org.web3j.utils.Strings;
+
+/**
+ * Parsed ABI of a contract. Each ABI is parsed once and shared by every stage consuming it, such as
+ * wrapper generation and metrics.
+ */
+class ContractAbi {
+
+    static final String FUNCTION_TYPE = "function";
+    static final String EVENT_TYPE = "event";
+
+    private static final String TUPLE_TYPE = "tuple";
+
+    private static final String DATATYPES_PACKAGE = "org.web3j.abi.datatypes";
+
+    private static final Pattern SIZED_TYPE = Pattern.compile("(u?int|bytes)([1-9][0-9]*)");
+
+    private static final ObjectMapper OBJECT_MAPPER = ObjectMapperFactory.getObjectMapper();
+
+    private final List<AbiDefinition> definitions;
+
+    ContractAbi(final List<AbiDefinition> definitions) {
+        this.definitions = Collections.unmodifiableList(definitions);
+    }
+
+    /** Parses an ABI JSON array, streaming its definitions without building a JSON tree. */
+    static ContractAbi parse(final byte[] abi) throws IOException {
+        try (JsonParser parser = OBJECT_MAPPER.getFactory().createParser(abi)) {
+            parser.nextToken();
+            return read(parser);
+        }
+    }
+
+    /** Parses an ABI JSON file, streaming it from disk. */
+    static ContractAbi parse(final Path abi) throws IOException {
+        try (JsonParser parser = OBJECT_MAPPER.getFactory().createParser(abi.toFile())) {
+            parser.nextToken();
+            return read(parser);
+        }
+    }
+
+    /**
+     * Reads an ABI JSON array from a parser positioned on its start, leaving it positioned on the
+     * array end.
+     */
+    static ContractAbi read(final JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new IOException("Contract ABI is not a JSON array");
+        }
+        final List<AbiDefinition> definitions = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            definitions.add(OBJECT_MAPPER.readValue(parser, AbiDefinition.class));
+        }
+        return new ContractAbi(definitions);
+    }
+
+    /**
+     * Builds the canonical signature of a function or event, e.g. <code>transfer(address,uint256)
+     * </code>, expanding tuples into their component types.
+     */
+    static String signature(final AbiDefinition definition) {
+        return definition.getName() + canonicalTypes(definition.getInputs());
+    }
+
+    private static String canonicalTypes(final List<AbiDefinition.NamedType> types) {
+        return types.stream()
+                .map(ContractAbi::canonicalType)
+                .collect(Collectors.joining(",", "(", ")"));
+    }
+
+    private static String canonicalType(final AbiDefinition.NamedType type) {
+        final String name = type.getType();
+        if (name.startsWith(TUPLE_TYPE)) {
+            // Keep the array dimensions of tuple arrays, e.g. tuple[2][]
+            return canonicalTypes(type.getComponents()) + name.substring(TUPLE_TYPE.length());
+        }
+        return name;
+    }
+
+    /** Maps an elementary ABI type to its web3j type class, or <code>null</code> if unsupported. */
+    static String typeClass(final String type) {
+        switch (type) {
+            case "address":
+                return DATATYPES_PACKAGE + ".Address";
+            case "bool":
+                return DATATYPES_PACKAGE + ".Bool";
+            case "string":
+                return DATATYPES_PACKAGE + ".Utf8String";
+            case "bytes":
+                return DATATYPES_PACKAGE + ".DynamicBytes";
+            default:
+                break;
+        }
+        final Matcher matcher = SIZED_TYPE.matcher(type);
+        if (!matcher.matches()) {
+            return null;
+        }
+        final int size = Integer.parseInt(matcher.group(2));
+        final boolean valid =
+                matcher.group(1).equals("bytes")
+                        ? size <= 32
+                        : size % Byte.SIZE == 0 && size <= 256;
+        return valid
+                ? DATATYPES_PACKAGE + ".generated." + Strings.capitaliseFirstLetter(type)
+                : null;
+    }
+
+    /**
+     * Maps an elementary ABI type to the Java type of its web3j type value, as used by native
+     * wrappers, or <code>null</code> if unsupported.
+     */
+    static String nativeType(final String type) {
+        if (typeClass(type) == null) {
+            return null;
+        } else if (type.equals("address") || type.equals("string")) {
+            return "String";
+        } else if (type.equals("bool")) {
+            return "Boolean";
+        } else if (type.startsWith("bytes")) {
+            return "byte[]";
+        }
+        return "BigInteger";
+    }
+
+    /**
+     * Maps an integer or boolean ABI type to the Java primitive type holding all of its values, as
+     * used by wrappers with primitive integers, or <code>null</code> if there is none.
+     */
+    static String primitiveType(final String type) {
+        if (type.equals("bool")) {
+            return "boolean";
+        }
+        final Matcher matcher = SIZED_TYPE.matcher(type);
+        if (typeClass(type) == null || !matcher.matches() || matcher.group(1).equals("bytes")) {
+            return null;
+        }
+        // Unsigned integers need a sign bit more in Java
+        final int valueBits =
+                Integer.parseInt(matcher.group(2)) + (matcher.group(1).equals("uint") ? 1 : 0);
+        if (valueBits <= Integer.SIZE) {
+            return "int";
+        }
+        return valueBits <= Long.SIZE ? "long" : null;
+    }
+
+    static String simpleName(final String typeClass) {
+        return typeClass.substring(typeClass.lastIndexOf('.') + 1);
+    }
+
+    List<AbiDefinition> getDefinitions() {
+        return definitions;
+    }
+
+    List<AbiDefinition> getFunctions() {
+        return ofType(FUNCTION_TYPE);
+    }
+
+    List<AbiDefinition> getEvents() {
+        return ofType(EVENT_TYPE);
+    }
+
+    boolean isEmpty() {
+        return definitions.isEmpty();
+    }
+
+    private List<AbiDefinition> ofType(final String type) {
+        return definitions.stream()
+                .filter(definition -> type.equals(definition.getType()))
+                .collect(Collectors.toList());
+    }
+}
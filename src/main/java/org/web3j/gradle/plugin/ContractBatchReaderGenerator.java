@@ -0,0 +1,381 @@
+/*
+ * Copyright 2019 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.gradle.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.web3j.protocol.core.methods.response.AbiDefinition;
+import org.web3j.utils.Strings;
+
+/**
+ * Generates a batch reader next to a contract wrapper, queueing calls to the <code>view</code> and
+ * <code>pure</code> functions of the contract and sending them as a single JSON-RPC batch of
+ * <code>eth_call</code> requests. Each queued call returns a typed handle, holding its result
+ * decoded with the return types declared in the ABI, or its own error, once the batch is sent. As
+ * for the wrapper, results are the Java types of the decoded values in native wrappers, see {@link
+ * ContractAbi#nativeType(String)}. Only functions with elementary parameter and return types are
+ * supported.
+ */
+final class ContractBatchReaderGenerator {
+
+    static final String CLASS_SUFFIX = "BatchReader";
+
+    private static final String DATATYPES_PACKAGE = "org.web3j.abi.datatypes";
+
+    /** Imports of every batch reader, other than the ABI types of the contract functions. */
+    private static final List<String> IMPORTS =
+            List.of(
+                    "java.io.IOException",
+                    "java.util.ArrayList",
+                    "java.util.Arrays",
+                    "java.util.HashMap",
+                    "java.util.List",
+                    "java.util.Map",
+                    "org.web3j.abi.FunctionEncoder",
+                    "org.web3j.abi.FunctionReturnDecoder",
+                    "org.web3j.abi.TypeReference",
+                    DATATYPES_PACKAGE + ".Function",
+                    DATATYPES_PACKAGE + ".Type",
+                    "org.web3j.protocol.Web3j",
+                    "org.web3j.protocol.core.BatchRequest",
+                    "org.web3j.protocol.core.BatchResponse",
+                    "org.web3j.protocol.core.DefaultBlockParameter",
+                    "org.web3j.protocol.core.DefaultBlockParameterName",
+                    "org.web3j.protocol.core.Request",
+                    "org.web3j.protocol.core.Response",
+                    "org.web3j.protocol.core.methods.request.Transaction",
+                    "org.web3j.protocol.core.methods.response.EthCall",
+                    "org.web3j.tx.exceptions.ContractCallException");
+
+    /** Result of a call, the decoded values themselves. */
+    private static final String RESULT = "single ? values.get(0) : values";
+
+    /** Result of a call in native wrappers, the Java values of the decoded values. */
+    private static final String NATIVE_RESULT =
+            """
+            single
+                                ? values.get(0).getValue()
+                                : values.stream()
+                                        .map(Type::getValue)
+                                        .collect(Collectors.toList())""";
+
+    /** Methods of every batch reader, formatted with the result of a call. */
+    private static final String SEND_METHODS =
+            """
+
+                /** Number of calls queued. */
+                public int size() {
+                    return calls.size();
+                }
+
+                /** Discards the queued calls. */
+                public void clear() {
+                    calls.clear();
+                }
+
+                /**
+                 * Sends the queued calls at the latest block.
+                 *
+                 * @see #send(DefaultBlockParameter)
+                 */
+                public void send() throws IOException {
+                    send(DefaultBlockParameterName.LATEST);
+                }
+
+                /**
+                 * Sends the queued calls in a single JSON-RPC batch and clears the queue. The
+                 * result of each call is then read from the {@link Call} returned when it was
+                 * queued. A call that fails or is reverted does not fail the other calls.
+                 *
+                 * @throws IOException if the batch cannot be sent
+                 */
+                public void send(final DefaultBlockParameter block) throws IOException {
+                    if (calls.isEmpty()) {
+                        return;
+                    }
+                    final BatchRequest batch = web3j.newBatch();
+                    final List<Request<?, EthCall>> requests = new ArrayList<>(calls.size());
+                    for (final Call<?> call : calls) {
+                        final Request<?, EthCall> request =
+                                web3j.ethCall(
+                                        Transaction.createEthCallTransaction(
+                                                fromAddress,
+                                                contractAddress,
+                                                FunctionEncoder.encode(call.function)),
+                                        block);
+                        requests.add(request);
+                        batch.add(request);
+                    }
+                    final BatchResponse response = batch.send();
+
+                    // Batch responses may come in any order, so they are matched by request id
+                    final Map<Long, Response<?>> responses = new HashMap<>();
+                    for (final Response<?> callResponse : response.getResponses()) {
+                        responses.put(callResponse.getId(), callResponse);
+                    }
+
+                    for (int i = 0; i < calls.size(); i++) {
+                        calls.get(i).complete(responses.get(requests.get(i).getId()));
+                    }
+                    calls.clear();
+                }
+
+                private <T> Call<T> add(final Function function, final boolean single) {
+                    final Call<T> call = new Call<>(function, single);
+                    calls.add(call);
+                    return call;
+                }
+
+                /**
+                 * A queued call to a contract function, holding its decoded result once the batch
+                 * is sent.
+                 *
+                 * @param <T> the single return type of the function, or a list with the return
+                 *     values of a function returning several values
+                 */
+                public static final class Call<T> {
+
+                    private final Function function;
+                    private final boolean single;
+                    private List<Type> values;
+                    private String error;
+
+                    private Call(final Function function, final boolean single) {
+                        this.function = function;
+                        this.single = single;
+                    }
+
+                    /** Whether the batch was sent and this call succeeded. */
+                    public boolean isSuccessful() {
+                        return values != null;
+                    }
+
+                    /**
+                     * The decoded result of the call.
+                     *
+                     * @throws ContractCallException if the batch was not sent, or the call failed
+                     *     or was reverted
+                     */
+                    @SuppressWarnings("unchecked")
+                    public T get() {
+                        if (values == null) {
+                            throw new ContractCallException(
+                                    error != null
+                                            ? error
+                                            : "Call " + function.getName() + " was not sent");
+                        }
+                        return (T) (%s);
+                    }
+
+                    private void complete(final Response<?> response) {
+                        if (!(response instanceof EthCall)) {
+                            error = "No response to call " + function.getName();
+                            return;
+                        }
+                        final EthCall ethCall = (EthCall) response;
+                        if (ethCall.hasError()) {
+                            error =
+                                    "Call " + function.getName() + " failed: "
+                                            + ethCall.getError().getMessage();
+                        } else if (ethCall.isReverted()) {
+                            error =
+                                    "Call " + function.getName() + " reverted: "
+                                            + ethCall.getRevertReason();
+                        } else {
+                            values =
+                                    FunctionReturnDecoder.decode(
+                                            ethCall.getValue(), function.getOutputParameters());
+                        }
+                    }
+                }
+            """;
+
+    private ContractBatchReaderGenerator() {}
+
+    static void generate(
+            final String contractName,
+            final ContractAbi abi,
+            final String packageName,
+            final boolean useNativeJavaTypes,
+            final File outputDir)
+            throws IOException {
+
+        final String wrapperName = Strings.capitaliseFirstLetter(contractName);
+        final String className = wrapperName + CLASS_SUFFIX;
+
+        final List<AbiDefinition> functions =
+                abi.getFunctions().stream()
+                        .filter(ContractBatchReaderGenerator::isReadOnly)
+                        .filter(function -> isSupported(function.getInputs()))
+                        .filter(function -> isSupported(function.getOutputs()))
+                        .collect(Collectors.toList());
+        if (functions.isEmpty()) {
+            return;
+        }
+
+        final TreeSet<String> imports = new TreeSet<>(IMPORTS);
+        for (final AbiDefinition function : functions) {
+            function.getInputs()
+                    .forEach(type -> imports.add(ContractAbi.typeClass(type.getType())));
+            for (final AbiDefinition.NamedType output : function.getOutputs()) {
+                imports.add(ContractAbi.typeClass(output.getType()));
+                if (useNativeJavaTypes
+                        && "BigInteger".equals(ContractAbi.nativeType(output.getType()))) {
+                    imports.add("java.math.BigInteger");
+                }
+            }
+        }
+        if (useNativeJavaTypes) {
+            imports.add("java.util.stream.Collectors");
+        }
+
+        final StringBuilder source = new StringBuilder();
+        source.append("package ").append(packageName).append(";\n\n");
+        String group = null;
+        for (final String typeClass : imports) {
+            final String typeGroup = typeClass.substring(0, typeClass.indexOf('.'));
+            if (group != null && !group.equals(typeGroup)) {
+                source.append("\n");
+            }
+            group = typeGroup;
+            source.append("import ").append(typeClass).append(";\n");
+        }
+
+        source.append("\n/**\n");
+        source.append(" * <p>Auto generated code.\n");
+        source.append(" * <p><strong>Do not modify!</strong>\n");
+        source.append(" * <p>Batch reader of the {@link ")
+                .append(wrapperName)
+                .append("} contract view functions, sending queued\n");
+        source.append(" * calls in a single JSON-RPC batch, generated by the web3j Gradle")
+                .append(" plugin.\n");
+        source.append(" */\n");
+        source.append("public final class ").append(className).append(" {\n\n");
+        source.append("    private final Web3j web3j;\n");
+        source.append("    private final String contractAddress;\n");
+        source.append("    private final String fromAddress;\n");
+        source.append("    private final List<Call<?>> calls = new ArrayList<>();\n\n");
+
+        source.append("    public ")
+                .append(className)
+                .append("(final Web3j web3j, final String contractAddress) {\n");
+        source.append("        this(web3j, contractAddress, null);\n");
+        source.append("    }\n\n");
+        source.append("    public ")
+                .append(className)
+                .append(
+                        "(\n            final Web3j web3j, final String contractAddress,"
+                                + " final String fromAddress) {\n");
+        source.append("        this.web3j = web3j;\n");
+        source.append("        this.contractAddress = contractAddress;\n");
+        source.append("        this.fromAddress = fromAddress;\n");
+        source.append("    }\n");
+
+        for (final AbiDefinition function : functions) {
+            appendQueueMethod(source, function, useNativeJavaTypes);
+        }
+
+        source.append(SEND_METHODS.formatted(useNativeJavaTypes ? NATIVE_RESULT : RESULT));
+        source.append("}\n");
+
+        final Path classFile =
+                outputDir
+                        .toPath()
+                        .resolve(packageName.replace('.', File.separatorChar))
+                        .resolve(className + ".java");
+        Files.createDirectories(classFile.getParent());
+        Files.write(classFile, source.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void appendQueueMethod(
+            final StringBuilder source,
+            final AbiDefinition function,
+            final boolean useNativeJavaTypes) {
+        final List<AbiDefinition.NamedType> inputs = function.getInputs();
+        final List<String> names = ContractCodecGenerator.parameterNames(inputs, List.of());
+
+        final String parameters =
+                IntStream.range(0, inputs.size())
+                        .mapToObj(
+                                i ->
+                                        "final "
+                                                + typeName(inputs.get(i).getType())
+                                                + " "
+                                                + names.get(i))
+                        .collect(Collectors.joining(", "));
+
+        final String outputs =
+                function.getOutputs().stream()
+                        .map(type -> "new TypeReference<" + typeName(type.getType()) + ">() {}")
+                        .collect(Collectors.joining(", "));
+
+        final boolean single = function.getOutputs().size() == 1;
+        final String resultType;
+        if (single) {
+            final String type = function.getOutputs().get(0).getType();
+            resultType = useNativeJavaTypes ? ContractAbi.nativeType(type) : typeName(type);
+        } else {
+            resultType = useNativeJavaTypes ? "List<Object>" : "List<Type>";
+        }
+
+        source.append("\n    /**\n");
+        source.append("     * Queues a call to <code>")
+                .append(ContractAbi.signature(function))
+                .append("</code>.\n");
+        source.append("     *\n");
+        source.append("     * @return the call, holding its result once the batch is sent\n");
+        source.append("     */\n");
+        source.append("    public Call<")
+                .append(resultType)
+                .append("> add")
+                .append(Strings.capitaliseFirstLetter(function.getName()))
+                .append("(")
+                .append(parameters)
+                .append(") {\n");
+        source.append("        return add(\n");
+        source.append("                new Function(\n");
+        source.append("                        \"").append(function.getName()).append("\",\n");
+        source.append("                        Arrays.<Type>asList(")
+                .append(String.join(", ", names))
+                .append("),\n");
+        source.append("                        Arrays.<TypeReference<?>>asList(")
+                .append(outputs)
+                .append(")),\n");
+        source.append("                ").append(single).append(");\n");
+        source.append("    }\n");
+    }
+
+    private static boolean isReadOnly(final AbiDefinition function) {
+        return function.isConstant()
+                || "view".equals(function.getStateMutability())
+                || "pure".equals(function.getStateMutability());
+    }
+
+    private static boolean isSupported(final List<AbiDefinition.NamedType> types) {
+        return types != null
+                && types.stream().allMatch(type -> ContractAbi.typeClass(type.getType()) != null);
+    }
+
+    /** Simple name of the web3j type class of an elementary ABI type. */
+    private static String typeName(final String type) {
+        return ContractAbi.simpleName(ContractAbi.typeClass(type));
+    }
+}
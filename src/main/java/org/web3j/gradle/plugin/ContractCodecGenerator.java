@@ -0,0 +1,516 @@
+/*
+ * Copyright 2019 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.gradle.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import javax.lang.model.SourceVersion;
+
+import org.web3j.crypto.Hash;
+import org.web3j.protocol.core.methods.response.AbiDefinition;
+import org.web3j.utils.Strings;
+
+/**
+ * Generates a codec class next to a contract wrapper, encoding and decoding the calls of functions
+ * with static elementary parameters (<code>address</code>, <code>bool</code>, <code>uintN</code>,
+ * <code>intN</code> and <code>bytesN</code>) without building <code>Function</code> and <code>Type
+ * </code> objects. Selectors are computed at generation time and values are written directly into a
+ * caller-provided buffer. Integers fitting in a Java <code>int</code> or <code>long</code>, such as
+ * <code>uint8</code> or <code>int64</code>, are passed as such, and larger ones as <code>BigInteger
+ * </code>.
+ */
+final class ContractCodecGenerator {
+
+    static final String CLASS_SUFFIX = "Codec";
+
+    private static final int WORD = 32;
+    private static final int SELECTOR = 4;
+
+    private static final Pattern INTEGER_TYPE = Pattern.compile("u?int([1-9][0-9]*)");
+    private static final Pattern FIXED_BYTES_TYPE = Pattern.compile("bytes([1-9][0-9]?)");
+
+    private static final String BIG_INTEGER = "BigInteger";
+
+    /** Encoding helpers of every codec, writing and reading 32-byte ABI words. */
+    private static final String HELPERS =
+            """
+
+                private static void writeSelector(
+                        final byte[] buffer, final int offset, final int selector) {
+                    buffer[offset] = (byte) (selector >>> 24);
+                    buffer[offset + 1] = (byte) (selector >>> 16);
+                    buffer[offset + 2] = (byte) (selector >>> 8);
+                    buffer[offset + 3] = (byte) selector;
+                }
+
+                private static void writeInteger(final byte[] buffer, final int offset,
+                        final BigInteger value, final int bits, final boolean signed) {
+                    final int bitLength = value.bitLength();
+                    if (signed ? bitLength > bits - 1 : value.signum() < 0 || bitLength > bits) {
+                        throw new IllegalArgumentException("Value out of range: " + value);
+                    }
+                    final byte padding = (byte) (value.signum() < 0 ? 0xff : 0);
+                    if (bitLength < Long.SIZE) {
+                        long word = value.longValue();
+                        for (int i = 31; i >= 24; i--) {
+                            buffer[offset + i] = (byte) word;
+                            word >>= 8;
+                        }
+                        Arrays.fill(buffer, offset, offset + 24, padding);
+                    } else {
+                        final byte[] bytes = value.toByteArray();
+                        final int length = Math.min(bytes.length, 32);
+                        System.arraycopy(
+                                bytes, bytes.length - length, buffer, offset + 32 - length, length);
+                        Arrays.fill(buffer, offset, offset + 32 - length, padding);
+                    }
+                }
+
+                private static void writeLong(final byte[] buffer, final int offset,
+                        final long value, final int bits, final boolean signed) {
+                    checkRange(value, bits, signed);
+                    long word = value;
+                    for (int i = 31; i >= 24; i--) {
+                        buffer[offset + i] = (byte) word;
+                        word >>= 8;
+                    }
+                    Arrays.fill(buffer, offset, offset + 24, (byte) (value < 0 ? 0xff : 0));
+                }
+
+                private static void checkRange(
+                        final long value, final int bits, final boolean signed) {
+                    final long min = signed ? -1L << (bits - 1) : 0;
+                    final long max = signed ? ~min : (1L << bits) - 1;
+                    if (value < min || value > max) {
+                        throw new IllegalArgumentException("Value out of range: " + value);
+                    }
+                }
+
+                private static void writeBool(
+                        final byte[] buffer, final int offset, final boolean value) {
+                    Arrays.fill(buffer, offset, offset + 31, (byte) 0);
+                    buffer[offset + 31] = (byte) (value ? 1 : 0);
+                }
+
+                private static void writeAddress(final byte[] buffer, final int offset,
+                        final String value, final int length) {
+                    final int start = value.startsWith("0x") ? 2 : 0;
+                    if (value.length() - start != length * 2) {
+                        throw new IllegalArgumentException("Invalid address: " + value);
+                    }
+                    Arrays.fill(buffer, offset, offset + 32 - length, (byte) 0);
+                    for (int i = 0; i < length; i++) {
+                        buffer[offset + 32 - length + i] =
+                                (byte) ((hexDigit(value, start + 2 * i) << 4)
+                                        | hexDigit(value, start + 2 * i + 1));
+                    }
+                }
+
+                private static int hexDigit(final String value, final int index) {
+                    final int digit = Character.digit(value.charAt(index), 16);
+                    if (digit < 0) {
+                        throw new IllegalArgumentException("Invalid hex: " + value);
+                    }
+                    return digit;
+                }
+
+                private static void writeBytes(final byte[] buffer, final int offset,
+                        final byte[] value, final int length) {
+                    if (value.length != length) {
+                        throw new IllegalArgumentException("Expected " + length + " bytes");
+                    }
+                    System.arraycopy(value, 0, buffer, offset, length);
+                    Arrays.fill(buffer, offset + length, offset + 32, (byte) 0);
+                }
+
+                private static BigInteger readInteger(
+                        final byte[] output, final int offset, final boolean signed) {
+                    final byte padding = (byte) (signed && output[offset] < 0 ? 0xff : 0);
+                    int start = offset;
+                    while (start < offset + 24 && output[start] == padding) {
+                        start++;
+                    }
+                    // Values fitting in a long are decoded without copying the word
+                    if (start == offset + 24 && (output[start] < 0) == (padding != 0)) {
+                        long word = 0;
+                        for (int i = start; i < offset + 32; i++) {
+                            word = (word << 8) | (output[i] & 0xff);
+                        }
+                        return BigInteger.valueOf(word);
+                    }
+                    final byte[] bytes = Arrays.copyOfRange(output, offset, offset + 32);
+                    return signed ? new BigInteger(bytes) : new BigInteger(1, bytes);
+                }
+
+                private static long readLong(final byte[] output, final int offset,
+                        final int bits, final boolean signed) {
+                    long word = 0;
+                    for (int i = offset + 24; i < offset + 32; i++) {
+                        word = (word << 8) | (output[i] & 0xff);
+                    }
+                    final byte padding = (byte) (word < 0 ? 0xff : 0);
+                    for (int i = offset; i < offset + 24; i++) {
+                        if (output[i] != padding) {
+                            throw new IllegalArgumentException("Value out of range");
+                        }
+                    }
+                    checkRange(word, bits, signed);
+                    return word;
+                }
+
+                private static String readAddress(
+                        final byte[] output, final int offset, final int length) {
+                    final char[] chars = new char[2 + length * 2];
+                    chars[0] = '0';
+                    chars[1] = 'x';
+                    for (int i = 0; i < length; i++) {
+                        final int value = output[offset + 32 - length + i] & 0xff;
+                        chars[2 + 2 * i] = Character.forDigit(value >>> 4, 16);
+                        chars[3 + 2 * i] = Character.forDigit(value & 0xf, 16);
+                    }
+                    return new String(chars);
+                }
+            """;
+
+    private ContractCodecGenerator() {}
+
+    static void generate(
+            final String contractName,
+            final ContractAbi abi,
+            final String packageName,
+            final int addressLength,
+            final File outputDir)
+            throws IOException {
+
+        final String wrapperName = Strings.capitaliseFirstLetter(contractName);
+        final String className = wrapperName + CLASS_SUFFIX;
+
+        final List<AbiDefinition> functions =
+                abi.getFunctions().stream()
+                        .filter(function -> isSupported(function.getInputs()))
+                        .collect(Collectors.toList());
+        if (functions.isEmpty()) {
+            return;
+        }
+
+        final Map<AbiDefinition, String> names = uniqueNames(functions);
+
+        final StringBuilder source = new StringBuilder();
+        source.append("package ").append(packageName).append(";\n\n");
+        source.append("import java.math.BigInteger;\n");
+        source.append("import java.util.Arrays;\n\n");
+        source.append("/**\n");
+        source.append(" * <p>Auto generated code.\n");
+        source.append(" * <p><strong>Do not modify!</strong>\n");
+        source.append(" * <p>Allocation-light ABI codec for the {@link ")
+                .append(wrapperName)
+                .append("} contract functions with static\n");
+        source.append(" * elementary parameters, generated by the web3j Gradle plugin.\n");
+        source.append(" */\n");
+        source.append("public final class ").append(className).append(" {\n");
+
+        for (final AbiDefinition function : functions) {
+            source.append("\n    /** Selector of <code>")
+                    .append(ContractAbi.signature(function))
+                    .append("</code>. */\n");
+            source.append("    public static final int ")
+                    .append(selectorName(function, names))
+                    .append(" = 0x")
+                    .append(selectorHex(function))
+                    .append(";\n");
+        }
+
+        source.append("\n    private ").append(className).append("() {}\n");
+
+        for (final AbiDefinition function : functions) {
+            appendEncoder(source, function, names, addressLength);
+            if (function.getOutputs() != null
+                    && function.getOutputs().size() == 1
+                    && isSupported(function.getOutputs())) {
+                appendDecoder(source, function, names, addressLength);
+            }
+        }
+
+        appendHelpers(source);
+        source.append("}\n");
+
+        final Path classFile =
+                outputDir
+                        .toPath()
+                        .resolve(packageName.replace('.', File.separatorChar))
+                        .resolve(className + ".java");
+        Files.createDirectories(classFile.getParent());
+        Files.write(classFile, source.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void appendEncoder(
+            final StringBuilder source,
+            final AbiDefinition function,
+            final Map<AbiDefinition, String> names,
+            final int addressLength) {
+
+        final List<AbiDefinition.NamedType> inputs = function.getInputs();
+        final List<String> parameterNames = parameterNames(inputs, List.of("buffer", "offset"));
+        final String methodName = "encode" + methodSuffix(function, names);
+        final int length = SELECTOR + WORD * inputs.size();
+
+        final StringBuilder parameters = new StringBuilder();
+        final StringBuilder arguments = new StringBuilder();
+        for (int i = 0; i < inputs.size(); i++) {
+            parameters
+                    .append(", final ")
+                    .append(javaType(inputs.get(i).getType()))
+                    .append(' ')
+                    .append(parameterNames.get(i));
+            arguments.append(i == 0 ? "" : ", ").append(parameterNames.get(i));
+        }
+
+        source.append("\n    /**\n");
+        source.append("     * Encodes a call to <code>")
+                .append(ContractAbi.signature(function))
+                .append("</code> into a buffer at an offset.\n");
+        source.append("     *\n");
+        source.append("     * @return the number of bytes written, always ")
+                .append(length)
+                .append("\n");
+        source.append("     */\n");
+        source.append("    public static int ")
+                .append(methodName)
+                .append("(final byte[] buffer, final int offset")
+                .append(parameters)
+                .append(") {\n");
+        source.append("        writeSelector(buffer, offset, ")
+                .append(selectorName(function, names))
+                .append(");\n");
+        for (int i = 0; i < inputs.size(); i++) {
+            source.append("        ")
+                    .append(
+                            writeCall(
+                                    inputs.get(i).getType(),
+                                    addressLength,
+                                    "offset + " + (SELECTOR + WORD * i),
+                                    parameterNames.get(i)))
+                    .append(";\n");
+        }
+        source.append("        return ").append(length).append(";\n");
+        source.append("    }\n");
+
+        source.append("\n    /** Encodes a call to <code>")
+                .append(ContractAbi.signature(function))
+                .append("</code>. */\n");
+        source.append("    public static byte[] ")
+                .append(methodName)
+                .append("(")
+                .append(parameters.length() == 0 ? "" : parameters.substring(2))
+                .append(") {\n");
+        source.append("        final byte[] buffer = new byte[").append(length).append("];\n");
+        source.append("        ")
+                .append(methodName)
+                .append("(buffer, 0")
+                .append(arguments.length() == 0 ? "" : ", ")
+                .append(arguments)
+                .append(");\n");
+        source.append("        return buffer;\n");
+        source.append("    }\n");
+    }
+
+    private static void appendDecoder(
+            final StringBuilder source,
+            final AbiDefinition function,
+            final Map<AbiDefinition, String> names,
+            final int addressLength) {
+
+        final String type = function.getOutputs().get(0).getType();
+
+        source.append("\n    /** Decodes the value returned by <code>")
+                .append(ContractAbi.signature(function))
+                .append("</code> from a buffer at an offset. */\n");
+        source.append("    public static ")
+                .append(javaType(type))
+                .append(" decode")
+                .append(methodSuffix(function, names))
+                .append("(final byte[] output, final int offset) {\n");
+        source.append("        return ")
+                .append(readCall(type, addressLength))
+                .append(";\n");
+        source.append("    }\n");
+    }
+
+    private static void appendHelpers(final StringBuilder source) {
+        source.append(HELPERS);
+    }
+
+    private static String writeCall(
+            final String type, final int addressLength, final String offset, final String value) {
+        final String arguments = "buffer, " + offset + ", " + value;
+        if (type.equals("address")) {
+            return "writeAddress(" + arguments + ", " + addressLength + ")";
+        } else if (type.equals("bool")) {
+            return "writeBool(" + arguments + ")";
+        } else if (type.startsWith("bytes")) {
+            return "writeBytes(" + arguments + ", " + type.substring("bytes".length()) + ")";
+        } else {
+            return (javaType(type).equals(BIG_INTEGER) ? "writeInteger(" : "writeLong(")
+                    + arguments
+                    + ", "
+                    + bits(type)
+                    + ", "
+                    + type.startsWith("int")
+                    + ")";
+        }
+    }
+
+    private static String readCall(final String type, final int addressLength) {
+        if (type.equals("address")) {
+            return "readAddress(output, offset, " + addressLength + ")";
+        } else if (type.equals("bool")) {
+            return "output[offset + " + (WORD - 1) + "] != 0";
+        } else if (type.startsWith("bytes")) {
+            return "Arrays.copyOfRange(output, offset, offset + "
+                    + type.substring("bytes".length())
+                    + ")";
+        } else if (javaType(type).equals(BIG_INTEGER)) {
+            return "readInteger(output, offset, " + type.startsWith("int") + ")";
+        } else {
+            return (javaType(type).equals("int") ? "(int) " : "")
+                    + "readLong(output, offset, "
+                    + bits(type)
+                    + ", "
+                    + type.startsWith("int")
+                    + ")";
+        }
+    }
+
+    private static boolean isSupported(final List<AbiDefinition.NamedType> types) {
+        return types != null
+                && types.stream().allMatch(type -> javaType(type.getType()) != null);
+    }
+
+    /**
+     * Maps a static elementary ABI type to its Java type, or <code>null</code> if unsupported.
+     * Integers are mapped to the smallest of <code>int</code>, <code>long</code> and <code>
+     * BigInteger</code> holding all their values.
+     */
+    private static String javaType(final String type) {
+        if (type.equals("address")) {
+            return "String";
+        } else if (type.equals("bool")) {
+            return "boolean";
+        }
+        Matcher matcher = INTEGER_TYPE.matcher(type);
+        if (matcher.matches()) {
+            final int bits = Integer.parseInt(matcher.group(1));
+            if (bits % 8 != 0 || bits > 256) {
+                return null;
+            }
+            // Unsigned integers need an extra bit, as Java integers are signed
+            final int valueBits = type.startsWith("u") ? bits + 1 : bits;
+            if (valueBits <= Integer.SIZE) {
+                return "int";
+            }
+            return valueBits <= Long.SIZE ? "long" : BIG_INTEGER;
+        }
+        matcher = FIXED_BYTES_TYPE.matcher(type);
+        if (matcher.matches()) {
+            return Integer.parseInt(matcher.group(1)) <= WORD ? "byte[]" : null;
+        }
+        return null;
+    }
+
+    private static int bits(final String type) {
+        return Integer.parseInt(type.substring(type.indexOf("int") + "int".length()));
+    }
+
+    private static String selectorHex(final AbiDefinition function) {
+        final byte[] hash =
+                Hash.sha3(ContractAbi.signature(function).getBytes(StandardCharsets.UTF_8));
+        final StringBuilder hex = new StringBuilder();
+        for (int i = 0; i < SELECTOR; i++) {
+            hex.append(String.format("%02x", hash[i]));
+        }
+        return hex.toString();
+    }
+
+    private static String selectorName(
+            final AbiDefinition function, final Map<AbiDefinition, String> names) {
+        return "SELECTOR_" + names.get(function).toUpperCase(Locale.ROOT);
+    }
+
+    private static String methodSuffix(
+            final AbiDefinition function, final Map<AbiDefinition, String> names) {
+        final String name = names.get(function);
+        return name.substring(0, 1).toUpperCase(Locale.ROOT) + name.substring(1);
+    }
+
+    /**
+     * Names each function or event for its constants and methods. Overloads are told apart by their
+     * parameter types, and names only differing in case get a numeric suffix.
+     */
+    static Map<AbiDefinition, String> uniqueNames(final List<AbiDefinition> definitions) {
+        final Map<String, Integer> overloads = new HashMap<>();
+        definitions.forEach(definition -> overloads.merge(definition.getName(), 1, Integer::sum));
+
+        final Set<String> used = new HashSet<>();
+        final Map<AbiDefinition, String> names = new IdentityHashMap<>();
+        for (final AbiDefinition definition : definitions) {
+            final String name =
+                    overloads.get(definition.getName()) == 1
+                            ? definition.getName()
+                            : definition.getName() + overloadSuffix(definition.getInputs());
+            String unique = name;
+            for (int i = 1; !used.add(unique.toUpperCase(Locale.ROOT)); i++) {
+                unique = name + "_" + i;
+            }
+            names.put(definition, unique);
+        }
+        return names;
+    }
+
+    private static String overloadSuffix(final List<AbiDefinition.NamedType> inputs) {
+        return inputs.stream()
+                .map(type -> "_" + type.getType().replace("[]", "Array"))
+                .collect(Collectors.joining());
+    }
+
+    /** Builds valid and unique Java parameter names, not clashing with reserved names. */
+    static List<String> parameterNames(
+            final List<AbiDefinition.NamedType> inputs, final List<String> reserved) {
+        final Set<String> used = new HashSet<>(reserved);
+        final List<String> names = new ArrayList<>(inputs.size());
+        for (int i = 0; i < inputs.size(); i++) {
+            String name = inputs.get(i).getName();
+            if (name == null || name.isEmpty()) {
+                name = "param" + i;
+            }
+            while (!SourceVersion.isName(name) || !used.add(name)) {
+                name = "_" + name;
+            }
+            names.add(name);
+        }
+        return names;
+    }
+}
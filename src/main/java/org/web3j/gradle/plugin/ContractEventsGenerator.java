@@ -0,0 +1,444 @@
+/*
+ * Copyright 2019 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.gradle.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import javax.lang.model.SourceVersion;
+
+import org.web3j.crypto.Hash;
+import org.web3j.protocol.core.methods.response.AbiDefinition;
+import org.web3j.utils.Strings;
+
+/**
+ * Generates an event dispatcher next to a contract wrapper, decoding a log into the <code>
+ * [Event]EventResponse</code> of the wrapper for the event matching its first topic. Event topics
+ * are hashed at generation time and matched with a single <code>switch</code>, and each event has
+ * its own decoder filling the response fields directly from the precomputed parameter types,
+ * without encoding the event signature again for every log.
+ *
+ * <p>Only events with a unique name and named parameters are supported, with elementary indexed
+ * parameters of a static type and elementary non-indexed parameters or dynamic arrays of them.
+ */
+final class ContractEventsGenerator {
+
+    static final String CLASS_SUFFIX = "Events";
+
+    private static final String DYNAMIC_ARRAY = "org.web3j.abi.datatypes.DynamicArray";
+
+    private static final String RESPONSE_SUFFIX = "EventResponse";
+
+    /** Field of the log in every event response. */
+    private static final String LOG_FIELD = "log";
+
+    /** Imports of every event dispatcher, other than the types of the event parameters. */
+    private static final List<String> IMPORTS =
+            List.of(
+                    "java.util.Arrays",
+                    "java.util.List",
+                    "org.web3j.abi.FunctionReturnDecoder",
+                    "org.web3j.abi.TypeReference",
+                    "org.web3j.abi.Utils",
+                    "org.web3j.abi.datatypes.Type",
+                    "org.web3j.protocol.core.methods.response.BaseEventResponse",
+                    "org.web3j.protocol.core.methods.response.Log");
+
+    /** Converts the values of a dynamic array into native values, only used by native wrappers. */
+    private static final String NATIVE_VALUES =
+            """
+
+                @SuppressWarnings("unchecked")
+                private static <T> List<T> nativeValues(final Type<?> array) {
+                    final List<T> values = new ArrayList<>();
+                    for (final Object value : (List<?>) array.getValue()) {
+                        values.add((T) ((Type<?>) value).getValue());
+                    }
+                    return values;
+                }
+            """;
+
+    /** Decodes the indexed topics of a log, following the event signature topic. */
+    private static final String INDEXED_VALUES =
+            """
+
+                private static List<Type> indexedValues(
+                        final List<String> topics, final List<TypeReference<Type>> parameters) {
+                    final List<Type> values = new ArrayList<>();
+                    for (int i = 0; i < parameters.size(); i++) {
+                        values.add(
+                                FunctionReturnDecoder.decodeIndexedValue(
+                                        topics.get(i + 1), parameters.get(i)));
+                    }
+                    return values;
+                }
+            """;
+
+    private ContractEventsGenerator() {}
+
+    static void generate(
+            final String contractName,
+            final ContractAbi abi,
+            final String packageName,
+            final boolean useNativeJavaTypes,
+            final boolean usePrimitiveTypes,
+            final File outputDir)
+            throws IOException {
+
+        final String wrapperName = Strings.capitaliseFirstLetter(contractName);
+        final String className = wrapperName + CLASS_SUFFIX;
+
+        // Overloaded events share their response class name, so they are not decoded
+        final Map<String, Integer> responseNames = new HashMap<>();
+        abi.getEvents()
+                .forEach(event -> responseNames.merge(responseName(event), 1, Integer::sum));
+
+        final List<AbiDefinition> events = new ArrayList<>();
+        for (final AbiDefinition event : abi.getEvents()) {
+            if (!event.isAnonymous()
+                    && responseNames.get(responseName(event)) == 1
+                    && isSupported(event.getInputs())) {
+                events.add(event);
+            }
+        }
+        if (events.isEmpty()) {
+            return;
+        }
+        final Map<AbiDefinition, String> names = ContractCodecGenerator.uniqueNames(events);
+
+        final TreeSet<String> imports = new TreeSet<>(IMPORTS);
+        boolean nativeArrays = false;
+        boolean indexedInputs = false;
+        for (final AbiDefinition event : events) {
+            for (final AbiDefinition.NamedType input : event.getInputs()) {
+                final String type = input.getType();
+                indexedInputs |= input.isIndexed();
+                imports.add(ContractAbi.typeClass(elementType(type)));
+                if (type.endsWith("[]")) {
+                    imports.add(DYNAMIC_ARRAY);
+                    nativeArrays |= useNativeJavaTypes;
+                }
+                if (useNativeJavaTypes
+                        && "BigInteger".equals(ContractAbi.nativeType(elementType(type)))) {
+                    imports.add("java.math.BigInteger");
+                }
+            }
+        }
+        if (nativeArrays || indexedInputs) {
+            imports.add("java.util.ArrayList");
+        }
+
+        final StringBuilder source = new StringBuilder();
+        source.append("package ").append(packageName).append(";\n\n");
+        String group = null;
+        for (final String typeClass : imports) {
+            final String typeGroup = typeClass.substring(0, typeClass.indexOf('.'));
+            if (group != null && !group.equals(typeGroup)) {
+                source.append("\n");
+            }
+            group = typeGroup;
+            source.append("import ").append(typeClass).append(";\n");
+        }
+
+        source.append("\n/**\n");
+        source.append(" * <p>Auto generated code.\n");
+        source.append(" * <p><strong>Do not modify!</strong>\n");
+        source.append(" * <p>Event dispatcher of the {@link ")
+                .append(wrapperName)
+                .append("} contract, decoding logs into its event\n");
+        source.append(" * responses by their precomputed signature topic, generated by the web3j")
+                .append(" Gradle plugin.\n");
+        source.append(" */\n");
+        source.append("public final class ").append(className).append(" {\n");
+
+        for (final AbiDefinition event : events) {
+            source.append("\n    /** Topic of <code>")
+                    .append(ContractAbi.signature(event))
+                    .append("</code>. */\n");
+            source.append("    public static final String TOPIC_")
+                    .append(constantName(event, names))
+                    .append(" =\n            \"")
+                    .append(topic(event))
+                    .append("\";\n");
+        }
+
+        for (final AbiDefinition event : events) {
+            final String constant = constantName(event, names);
+            if (event.getInputs().stream().anyMatch(AbiDefinition.NamedType::isIndexed)) {
+                appendParameters(source, constant + "_INDEXED", event, true);
+            }
+            if (!event.getInputs().stream().allMatch(AbiDefinition.NamedType::isIndexed)) {
+                appendParameters(source, constant + "_NON_INDEXED", event, false);
+            }
+        }
+
+        source.append("\n    private ").append(className).append("() {}\n");
+
+        source.append("\n    /**\n");
+        source.append("     * Decodes a log of the contract into the response of its event.\n");
+        source.append("     *\n");
+        source.append("     * @return the event response, or <code>null</code> if the log is not")
+                .append(" a known event\n");
+        source.append("     */\n");
+        source.append("    public static BaseEventResponse decode(final Log log) {\n");
+        source.append("        final List<String> topics = log.getTopics();\n");
+        source.append("        if (topics == null || topics.isEmpty()) {\n");
+        source.append("            return null;\n");
+        source.append("        }\n");
+        source.append("        switch (topics.get(0)) {\n");
+        for (final AbiDefinition event : events) {
+            source.append("            case TOPIC_")
+                    .append(constantName(event, names))
+                    .append(":\n");
+            source.append("                return decode")
+                    .append(methodSuffix(event, names))
+                    .append("(log);\n");
+        }
+        source.append("            default:\n");
+        source.append("                return null;\n");
+        source.append("        }\n");
+        source.append("    }\n");
+
+        for (final AbiDefinition event : events) {
+            appendDecoder(
+                    source, wrapperName, event, names, useNativeJavaTypes, usePrimitiveTypes);
+        }
+
+        if (indexedInputs) {
+            source.append(INDEXED_VALUES);
+        }
+        if (nativeArrays) {
+            source.append(NATIVE_VALUES);
+        }
+        source.append("}\n");
+
+        final Path classFile =
+                outputDir
+                        .toPath()
+                        .resolve(packageName.replace('.', File.separatorChar))
+                        .resolve(className + ".java");
+        Files.createDirectories(classFile.getParent());
+        Files.write(classFile, source.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void appendParameters(
+            final StringBuilder source,
+            final String constant,
+            final AbiDefinition event,
+            final boolean indexed) {
+        final String references =
+                event.getInputs().stream()
+                        .filter(input -> input.isIndexed() == indexed)
+                        .map(input -> "new TypeReference<" + typeName(input.getType()) + ">() {}")
+                        .collect(Collectors.joining(",\n                            "));
+
+        source.append("\n    private static final List<TypeReference<Type>> ")
+                .append(constant)
+                .append(" =\n");
+        source.append("            Utils.convert(\n");
+        source.append("                    Arrays.<TypeReference<?>>asList(\n");
+        source.append("                            ").append(references).append("));\n");
+    }
+
+    /**
+     * Appends the decoder of an event, filling each field of its response from the indexed topics
+     * or the non-indexed data, as the wrapper does for the logs of a transaction receipt.
+     */
+    private static void appendDecoder(
+            final StringBuilder source,
+            final String wrapperName,
+            final AbiDefinition event,
+            final Map<AbiDefinition, String> names,
+            final boolean useNativeJavaTypes,
+            final boolean usePrimitiveTypes) {
+
+        final String constant = constantName(event, names);
+        final String responseClass = wrapperName + "." + responseName(event);
+        final List<AbiDefinition.NamedType> inputs = event.getInputs();
+        final long indexedCount =
+                inputs.stream().filter(AbiDefinition.NamedType::isIndexed).count();
+
+        source.append("\n    /**\n");
+        source.append("     * Decodes a log of the <code>")
+                .append(ContractAbi.signature(event))
+                .append("</code> event.\n");
+        source.append("     *\n");
+        source.append("     * @return the event response, or <code>null</code> if the log is not")
+                .append(" of this event\n");
+        source.append("     */\n");
+        source.append("    public static ")
+                .append(responseClass)
+                .append(" decode")
+                .append(methodSuffix(event, names))
+                .append("(final Log log) {\n");
+        source.append("        final List<String> topics = log.getTopics();\n");
+        source.append("        // An event with the same signature but other indexed parameters")
+                .append(" is not decoded\n");
+        appendStatement(
+                source,
+                "if (topics == null || topics.size() != "
+                        + (indexedCount + 1)
+                        + " || !TOPIC_"
+                        + constant
+                        + ".equals(topics.get(0))) {",
+                "if (topics == null\n                || topics.size() != "
+                        + (indexedCount + 1)
+                        + "\n                || !TOPIC_"
+                        + constant
+                        + ".equals(topics.get(0))) {");
+        source.append("            return null;\n");
+        source.append("        }\n");
+        if (indexedCount > 0) {
+            source.append("        final List<Type> indexedValues = indexedValues(topics, ")
+                    .append(constant)
+                    .append("_INDEXED);\n");
+        }
+        if (indexedCount < inputs.size()) {
+            final String decode =
+                    "FunctionReturnDecoder.decode(log.getData(), " + constant + "_NON_INDEXED);";
+            appendStatement(
+                    source,
+                    "final List<Type> values = " + decode,
+                    "final List<Type> values =\n                " + decode);
+        }
+        source.append("        final ")
+                .append(responseClass)
+                .append(" response = new ")
+                .append(responseClass)
+                .append("();\n");
+        source.append("        response.").append(LOG_FIELD).append(" = log;\n");
+
+        int indexed = 0;
+        int nonIndexed = 0;
+        for (final AbiDefinition.NamedType input : inputs) {
+            final String value;
+            if (input.isIndexed()) {
+                value = "indexedValues.get(" + indexed++ + ")";
+            } else {
+                value = "values.get(" + nonIndexed++ + ")";
+            }
+            final String field =
+                    fieldValue(input, value, useNativeJavaTypes, usePrimitiveTypes) + ";";
+            appendStatement(
+                    source,
+                    "response." + input.getName() + " = " + field,
+                    "response." + input.getName() + " =\n                " + field);
+        }
+        source.append("        return response;\n");
+        source.append("    }\n");
+    }
+
+    /** Appends a statement on a single line if it fits, or else split. */
+    private static void appendStatement(
+            final StringBuilder source, final String statement, final String splitStatement) {
+        source.append("        ")
+                .append(statement.length() + 8 <= 100 ? statement : splitStatement)
+                .append("\n");
+    }
+
+    /**
+     * Converts a decoded value to the type of its response field, the web3j type or the Java type
+     * of its value in native wrappers, e.g. <code>List&lt;BigInteger&gt;</code> for <code>
+     * uint256[]</code>, narrowed as by {@link PrimitiveIntegers} if enabled.
+     */
+    private static String fieldValue(
+            final AbiDefinition.NamedType input,
+            final String value,
+            final boolean useNativeJavaTypes,
+            final boolean usePrimitiveTypes) {
+        if (!useNativeJavaTypes) {
+            return "(" + typeName(input.getType()) + ") " + value;
+        } else if (input.getType().endsWith("[]")) {
+            return "nativeValues(" + value + ")";
+        }
+        final String primitiveType =
+                usePrimitiveTypes ? ContractAbi.primitiveType(input.getType()) : null;
+        if ("int".equals(primitiveType) || "long".equals(primitiveType)) {
+            return "((BigInteger) " + value + ".getValue())." + primitiveType + "ValueExact()";
+        }
+        return "(" + ContractAbi.nativeType(input.getType()) + ") " + value + ".getValue()";
+    }
+
+    private static boolean isSupported(final List<AbiDefinition.NamedType> inputs) {
+        if (inputs == null) {
+            return false;
+        }
+        final Set<String> fields = new HashSet<>(List.of(LOG_FIELD));
+        for (final AbiDefinition.NamedType input : inputs) {
+            final String type = input.getType();
+            final String name = input.getName();
+            if (name == null || !SourceVersion.isName(name) || !fields.add(name)) {
+                return false;
+            }
+            // Indexed dynamic values are hashed into their topic
+            final boolean supported =
+                    input.isIndexed()
+                            ? ContractAbi.typeClass(type) != null
+                                    && !type.equals("string")
+                                    && !type.equals("bytes")
+                            : ContractAbi.typeClass(elementType(type)) != null;
+            if (!supported) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Name of the response class of an event in the wrapper. */
+    static String responseName(final AbiDefinition event) {
+        return Strings.capitaliseFirstLetter(event.getName()) + RESPONSE_SUFFIX;
+    }
+
+    private static String constantName(
+            final AbiDefinition event, final Map<AbiDefinition, String> names) {
+        return names.get(event).toUpperCase(Locale.ROOT);
+    }
+
+    private static String methodSuffix(
+            final AbiDefinition event, final Map<AbiDefinition, String> names) {
+        final String name = names.get(event);
+        return name.substring(0, 1).toUpperCase(Locale.ROOT) + name.substring(1);
+    }
+
+    /** Element type of a dynamic array, or the type itself. */
+    private static String elementType(final String type) {
+        return type.endsWith("[]") ? type.substring(0, type.length() - "[]".length()) : type;
+    }
+
+    private static String typeName(final String type) {
+        final String elementName = ContractAbi.simpleName(ContractAbi.typeClass(elementType(type)));
+        return type.endsWith("[]") ? "DynamicArray<" + elementName + ">" : elementName;
+    }
+
+    /** Hashes an event signature into its topic as a lower case hex string. */
+    private static String topic(final AbiDefinition event) {
+        final byte[] hash =
+                Hash.sha3(ContractAbi.signature(event).getBytes(StandardCharsets.UTF_8));
+        final StringBuilder hex = new StringBuilder("0x");
+        for (final byte b : hash) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+}
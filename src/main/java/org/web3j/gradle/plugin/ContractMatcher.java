@@ -0,0 +1,120 @@
+/*
+ * Copyright 2019 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.gradle.plugin;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Matches contracts against a list of patterns, compiled once:
+ *
+ * <ul>
+ *   <li>exact contract names, e.g. <code>Token</code>;
+ *   <li>contract name globs, e.g. <code>I*</code> or <code>*Mock</code>;
+ *   <li>source path globs containing a <code>/</code>, e.g. <code>**&#47;mocks/**</code>;
+ *   <li>regular expressions prefixed with <code>regex:</code>, matching the name or the path.
+ * </ul>
+ */
+class ContractMatcher {
+
+    static final String REGEX_PREFIX = "regex:";
+
+    private final Set<String> names = new HashSet<>();
+    private final Pattern namePattern;
+    private final Pattern pathPattern;
+    private final boolean empty;
+
+    ContractMatcher(final List<String> patterns) {
+        final List<String> nameRegexes = new ArrayList<>();
+        final List<String> pathRegexes = new ArrayList<>();
+
+        for (final String pattern : patterns) {
+            if (pattern.startsWith(REGEX_PREFIX)) {
+                final String regex = "(?:" + pattern.substring(REGEX_PREFIX.length()) + ")";
+                nameRegexes.add(regex);
+                pathRegexes.add(regex);
+            } else if (pattern.indexOf('/') >= 0) {
+                pathRegexes.add(globToRegex(pattern));
+            } else if (pattern.indexOf('*') >= 0 || pattern.indexOf('?') >= 0) {
+                nameRegexes.add(globToRegex(pattern));
+            } else {
+                names.add(pattern);
+            }
+        }
+
+        this.namePattern = compile(nameRegexes);
+        this.pathPattern = compile(pathRegexes);
+        this.empty = patterns.isEmpty();
+    }
+
+    boolean isEmpty() {
+        return empty;
+    }
+
+    /**
+     * Matches a contract by its name, or its source path with '/' separators relative to the
+     * source directory.
+     */
+    boolean matches(final String contractName, final String contractPath) {
+        return names.contains(contractName)
+                || (namePattern != null && namePattern.matcher(contractName).matches())
+                || (pathPattern != null && pathPattern.matcher(contractPath).matches());
+    }
+
+    private static Pattern compile(final List<String> regexes) {
+        return regexes.isEmpty() ? null : Pattern.compile(String.join("|", regexes));
+    }
+
+    /**
+     * Converts a glob to a regular expression, where <code>**</code> matches any number of
+     * directories, <code>*</code> any characters within a directory and <code>?</code> a single
+     * one.
+     */
+    private static String globToRegex(final String glob) {
+        final StringBuilder regex = new StringBuilder("(?:");
+        final StringBuilder literal = new StringBuilder();
+
+        for (int i = 0; i < glob.length(); i++) {
+            final char c = glob.charAt(i);
+            if (c != '*' && c != '?') {
+                literal.append(c);
+                continue;
+            }
+            if (literal.length() > 0) {
+                regex.append(Pattern.quote(literal.toString()));
+                literal.setLength(0);
+            }
+            if (c == '?') {
+                regex.append("[^/]");
+            } else if (i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+                // A leading or inner "**/" also matches no directory at all
+                if (i + 2 < glob.length() && glob.charAt(i + 2) == '/') {
+                    regex.append("(?:.*/)?");
+                    i += 2;
+                } else {
+                    regex.append(".*");
+                    i++;
+                }
+            } else {
+                regex.append("[^/]*");
+            }
+        }
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return regex.append(')').toString();
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2019 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.gradle.plugin;
+
+/** Timings and sizes recorded while generating the wrapper of a single contract. */
+public class ContractMetrics {
+
+    private String contract;
+    private String packageName;
+    private boolean cached;
+    private int functions;
+    private int events;
+    private long queueWaitMillis;
+    private double abiParseMillis;
+    private double generationMillis;
+    private long bytesWritten;
+
+    public String getContract() {
+        return contract;
+    }
+
+    public void setContract(final String contract) {
+        this.contract = contract;
+    }
+
+    public String getPackageName() {
+        return packageName;
+    }
+
+    public void setPackageName(final String packageName) {
+        this.packageName = packageName;
+    }
+
+    /** Whether the wrapper was reused from the generation cache. */
+    public boolean isCached() {
+        return cached;
+    }
+
+    public void setCached(final boolean cached) {
+        this.cached = cached;
+    }
+
+    /** Number of functions in the contract ABI, not available for cached wrappers. */
+    public int getFunctions() {
+        return functions;
+    }
+
+    public void setFunctions(final int functions) {
+        this.functions = functions;
+    }
+
+    /** Number of events in the contract ABI, not available for cached wrappers. */
+    public int getEvents() {
+        return events;
+    }
+
+    public void setEvents(final int events) {
+        this.events = events;
+    }
+
+    /** Time between the submission of the contract batch and the start of its worker. */
+    public long getQueueWaitMillis() {
+        return queueWaitMillis;
+    }
+
+    public void setQueueWaitMillis(final long queueWaitMillis) {
+        this.queueWaitMillis = queueWaitMillis;
+    }
+
+    public double getAbiParseMillis() {
+        return abiParseMillis;
+    }
+
+    public void setAbiParseMillis(final double abiParseMillis) {
+        this.abiParseMillis = abiParseMillis;
+    }
+
+    public double getGenerationMillis() {
+        return generationMillis;
+    }
+
+    public void setGenerationMillis(final double generationMillis) {
+        this.generationMillis = generationMillis;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public void setBytesWritten(final long bytesWritten) {
+        this.bytesWritten = bytesWritten;
+    }
+
+    /** Time spent parsing and generating, excluding queue wait. */
+    double totalMillis() {
+        return abiParseMillis + generationMillis;
+    }
+}
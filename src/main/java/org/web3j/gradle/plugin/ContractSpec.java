@@ -0,0 +1,108 @@
+/*
+ * Copyright 2019 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.gradle.plugin;
+
+import java.io.File;
+import java.io.Serializable;
+
+/** A contract submitted for wrapper generation. */
+public class ContractSpec implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String contractId;
+    private final String contractName;
+    private final File contractBin;
+    private final File contractAbi;
+    private final String packageName;
+    private final String bin;
+    private final String abi;
+
+    public ContractSpec(
+            final String contractId,
+            final String contractName,
+            final File contractBin,
+            final File contractAbi,
+            final String packageName) {
+        this(contractId, contractName, contractBin, contractAbi, packageName, null, null);
+    }
+
+    /** A contract read from a solc JSON output, with its bytecode and ABI inlined. */
+    public ContractSpec(
+            final String contractId,
+            final String contractName,
+            final String bin,
+            final String abi,
+            final String packageName) {
+        this(contractId, contractName, null, null, packageName, bin, abi);
+    }
+
+    private ContractSpec(
+            final String contractId,
+            final String contractName,
+            final File contractBin,
+            final File contractAbi,
+            final String packageName,
+            final String bin,
+            final String abi) {
+        this.contractId = contractId;
+        this.contractName = contractName;
+        this.contractBin = contractBin;
+        this.contractAbi = contractAbi;
+        this.packageName = packageName;
+        this.bin = bin;
+        this.abi = abi;
+    }
+
+    /** Contract path relative to its source directory, without extension. */
+    public String getContractId() {
+        return contractId;
+    }
+
+    public String getContractName() {
+        return contractName;
+    }
+
+    /** Contract bytecode file, or <code>null</code> if inlined or ABI-only. */
+    public File getContractBin() {
+        return contractBin;
+    }
+
+    public File getContractAbi() {
+        return contractAbi;
+    }
+
+    public String getPackageName() {
+        return packageName;
+    }
+
+    /** Whether the wrapper is generated without the contract bytecode and deployment methods. */
+    public boolean isAbiOnly() {
+        return contractBin == null && bin == null;
+    }
+
+    /** Inlined contract bytecode, or <code>null</code> if read from {@link #getContractBin()}. */
+    public String getBin() {
+        return bin;
+    }
+
+    /** Inlined contract ABI, or <code>null</code> if read from {@link #getContractAbi()}. */
+    public String getAbi() {
+        return abi;
+    }
+
+    @Override
+    public String toString() {
+        return packageName + "." + contractName;
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2019 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.gradle.plugin;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.UUID;
+
+import org.web3j.utils.Numeric;
+
+/**
+ * Local cache of generated wrappers, keyed by a hash of everything affecting the generated code of
+ * a single contract. Entries are immutable, so the cache directory can be shared between projects,
+ * branches and concurrent builds.
+ */
+class ContractWrapperCache {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Path cacheDir;
+
+    ContractWrapperCache(final Path cacheDir) {
+        this.cacheDir = cacheDir;
+    }
+
+    /** Builds the cache key of a contract from its inputs and the generator configuration. */
+    static String key(
+            final ContractSpec contract,
+            final byte[] abi,
+            final byte[] bin,
+            final ContractWrapperGenerator generator) {
+
+        final MessageDigest digest = newDigest();
+
+        update(digest, abi);
+        update(digest, bin);
+        updateContract(digest, contract, generator);
+
+        return Numeric.toHexStringNoPrefix(digest.digest());
+    }
+
+    /**
+     * Builds the cache key of a contract streaming its ABI from disk, producing the same key as
+     * {@link #key(ContractSpec, byte[], byte[], ContractWrapperGenerator)}.
+     */
+    static String key(
+            final ContractSpec contract,
+            final Path abi,
+            final byte[] bin,
+            final ContractWrapperGenerator generator)
+            throws IOException {
+
+        final MessageDigest digest = newDigest();
+
+        update(digest, abi);
+        update(digest, bin);
+        updateContract(digest, contract, generator);
+
+        return Numeric.toHexStringNoPrefix(digest.digest());
+    }
+
+    /** Returns the directory containing the cached wrapper files, or null on a cache miss. */
+    Path find(final String key) {
+        final Path entry = entry(key);
+        return Files.isDirectory(entry) ? entry : null;
+    }
+
+    /** Stores the wrapper files generated in a directory, unless already cached. */
+    void store(final String key, final Path generatedDir) throws IOException {
+        final Path entry = entry(key);
+        if (Files.isDirectory(entry)) {
+            return;
+        }
+
+        // Populate a temporary directory first so readers never see partial entries
+        final Path temporary = cacheDir.resolve("tmp-" + UUID.randomUUID());
+        WrapperFiles.copy(generatedDir, temporary);
+        Files.createDirectories(entry.getParent());
+        try {
+            Files.move(temporary, entry, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileSystemException e) {
+            WrapperFiles.delete(temporary);
+            // Fine if the same entry was stored concurrently by another build
+            if (!Files.isDirectory(entry)) {
+                throw e;
+            }
+        }
+    }
+
+    private Path entry(final String key) {
+        return cacheDir.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void updateContract(
+            final MessageDigest digest,
+            final ContractSpec contract,
+            final ContractWrapperGenerator generator) {
+        update(digest, contract.getContractName().getBytes(StandardCharsets.UTF_8));
+        update(digest, contract.getPackageName().getBytes(StandardCharsets.UTF_8));
+        update(digest, generator.getFingerprint().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void update(final MessageDigest digest, final byte[] value) {
+        updateLength(digest, value.length);
+        digest.update(value);
+    }
+
+    private static void update(final MessageDigest digest, final Path file) throws IOException {
+        updateLength(digest, Files.size(file));
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream input = Files.newInputStream(file)) {
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+    }
+
+    private static void updateLength(final MessageDigest digest, final long length) {
+        // Length prefix to avoid ambiguous concatenations
+        digest.update(Long.toString(length).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+}
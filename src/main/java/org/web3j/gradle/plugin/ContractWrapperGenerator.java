@@ -0,0 +1,206 @@
+/*
+ * Copyright 2019 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.gradle.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.CodeSource;
+import java.util.Properties;
+
+import org.web3j.codegen.SolidityFunctionWrapper;
+import org.web3j.tx.Contract;
+
+/**
+ * Generates contract wrappers calling the web3j code generator directly, instead of going through
+ * the <code>SolidityFunctionWrapperGenerator</code> command line interface.
+ */
+class ContractWrapperGenerator {
+
+    /**
+     * Version of the code generated by this class and its companion generators. Bump it whenever
+     * the generated output changes, so cached wrappers of previous plugin builds are not reused.
+     */
+    static final int FORMAT_VERSION = 5;
+
+    private static final String CODEGEN_VERSION = buildCodegenVersion();
+
+    private static final String PLUGIN_VERSION = buildPluginVersion();
+
+    private final boolean useNativeJavaTypes;
+    private final boolean usePrimitiveTypes;
+    private final boolean generateBoth;
+    private final int addressLength;
+    private final String sharedStructsPackage;
+    private final boolean generateCodecs;
+    private final boolean generateEventDispatchers;
+    private final boolean generateBatchReaders;
+    private final boolean bytecodeResources;
+
+    /**
+     * @param usePrimitiveTypes use Java primitive types for integers and booleans in native
+     *     wrappers, see {@link PrimitiveIntegers}
+     * @param sharedStructsPackage package of the structs shared between wrappers, or <code>null
+     *     </code> to generate them nested in each wrapper
+     * @param generateCodecs generate a codec next to each wrapper, see {@link
+     *     ContractCodecGenerator}
+     * @param generateEventDispatchers generate an event dispatcher next to each wrapper, see
+     *     {@link ContractEventsGenerator}
+     * @param generateBatchReaders generate a batch reader of view functions next to each wrapper,
+     *     see {@link ContractBatchReaderGenerator}
+     * @param bytecodeResources write the contract bytecode to a resource loaded lazily by the
+     *     wrapper, see {@link BytecodeResources}
+     */
+    ContractWrapperGenerator(
+            final boolean useNativeJavaTypes,
+            final boolean usePrimitiveTypes,
+            final boolean generateBoth,
+            final int addressLength,
+            final String sharedStructsPackage,
+            final boolean generateCodecs,
+            final boolean generateEventDispatchers,
+            final boolean generateBatchReaders,
+            final boolean bytecodeResources) {
+        this.useNativeJavaTypes = useNativeJavaTypes;
+        this.usePrimitiveTypes = usePrimitiveTypes;
+        this.generateBoth = generateBoth;
+        this.addressLength = addressLength;
+        this.sharedStructsPackage = sharedStructsPackage;
+        this.generateCodecs = generateCodecs;
+        this.generateEventDispatchers = generateEventDispatchers;
+        this.generateBatchReaders = generateBatchReaders;
+        this.bytecodeResources = bytecodeResources;
+    }
+
+    /**
+     * Describes the generator configuration, the plugin and code generator versions and the output
+     * format, identifying the code generated for a given ABI and binary.
+     */
+    String getFingerprint() {
+        return "useNativeJavaTypes="
+                + useNativeJavaTypes
+                + ",usePrimitiveTypes="
+                + usePrimitiveTypes
+                + ",generateBoth="
+                + generateBoth
+                + ",addressLength="
+                + addressLength
+                + ",sharedStructsPackage="
+                + sharedStructsPackage
+                + ",generateCodecs="
+                + generateCodecs
+                + ",generateEventDispatchers="
+                + generateEventDispatchers
+                + ",generateBatchReaders="
+                + generateBatchReaders
+                + ",bytecodeResources="
+                + bytecodeResources
+                + ",format="
+                + FORMAT_VERSION
+                + ",plugin="
+                + PLUGIN_VERSION
+                + ",codegen="
+                + CODEGEN_VERSION;
+    }
+
+    /**
+     * Generates the wrapper for a contract from its parsed ABI and binary. A <code>null</code>
+     * binary generates a wrapper without deployment methods.
+     */
+    void generate(
+            final String contractName,
+            final ContractAbi abi,
+            final String bin,
+            final File outputDir,
+            final String packageName)
+            throws IOException, ClassNotFoundException {
+
+        if (abi.isEmpty()) {
+            throw new IOException("Empty ABI for contract " + contractName);
+        }
+
+        final boolean binaryResource = bytecodeResources && bin != null;
+        final String wrapperBin;
+        if (bin == null) {
+            wrapperBin = Contract.BIN_NOT_PROVIDED;
+        } else {
+            wrapperBin = binaryResource ? BytecodeResources.PLACEHOLDER : bin;
+        }
+
+        // Primitive types are narrowed from the native types afterwards, including unsigned ones
+        new SolidityFunctionWrapper(useNativeJavaTypes, false, generateBoth, addressLength)
+                .generateJavaFiles(
+                        contractName,
+                        wrapperBin,
+                        abi.getDefinitions(),
+                        outputDir.getAbsolutePath(),
+                        packageName,
+                        null);
+
+        final boolean primitiveTypes = useNativeJavaTypes && usePrimitiveTypes;
+        if (primitiveTypes) {
+            PrimitiveIntegers.narrow(outputDir, contractName, packageName, abi);
+        }
+        if (binaryResource) {
+            BytecodeResources.extract(outputDir, contractName, packageName, bin);
+        }
+
+        if (sharedStructsPackage != null) {
+            SharedStructs.extract(outputDir, abi, sharedStructsPackage);
+        }
+        if (generateCodecs) {
+            ContractCodecGenerator.generate(
+                    contractName, abi, packageName, addressLength, outputDir);
+        }
+        if (generateEventDispatchers) {
+            ContractEventsGenerator.generate(
+                    contractName,
+                    abi,
+                    packageName,
+                    useNativeJavaTypes,
+                    primitiveTypes,
+                    outputDir);
+        }
+        if (generateBatchReaders) {
+            ContractBatchReaderGenerator.generate(
+                    contractName, abi, packageName, useNativeJavaTypes, outputDir);
+        }
+    }
+
+    private static String buildCodegenVersion() {
+        final Package codegenPackage = SolidityFunctionWrapper.class.getPackage();
+        if (codegenPackage != null && codegenPackage.getImplementationVersion() != null) {
+            return codegenPackage.getImplementationVersion();
+        }
+        // Fall back to the code generator artifact, e.g. codegen-4.12.2.jar
+        final CodeSource codeSource =
+                SolidityFunctionWrapper.class.getProtectionDomain().getCodeSource();
+        return codeSource == null ? "unknown" : codeSource.getLocation().getPath();
+    }
+
+    private static String buildPluginVersion() {
+        try (InputStream versionProps =
+                ContractWrapperGenerator.class
+                        .getClassLoader()
+                        .getResourceAsStream("version.properties")) {
+            if (versionProps == null) {
+                return "unknown";
+            }
+            final Properties properties = new Properties();
+            properties.load(versionProps);
+            return properties.getProperty("version", "unknown");
+        } catch (IOException e) {
+            return "unknown";
+        }
+    }
+}
@@ -13,66 +13,238 @@
 package org.web3j.gradle.plugin;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.ListProperty;
 import org.gradle.api.provider.Property;
 import org.gradle.workers.WorkAction;
 import org.gradle.workers.WorkParameters;
 
-import org.web3j.codegen.SolidityFunctionWrapperGenerator;
+import org.web3j.protocol.ObjectMapperFactory;
 
 public abstract class GenerateContractWrapper
         implements WorkAction<GenerateContractWrapper.Parameters> {
 
+    private static final Logger LOGGER = Logging.getLogger(GenerateContractWrapper.class);
+
+    private static final ObjectMapper OBJECT_MAPPER = ObjectMapperFactory.getObjectMapper();
+
     @Override
     public void execute() {
-        final String typesFlag =
-                getParameters().getUseNativeJavaTypes().get() ? "--javaTypes" : "--solidityTypes";
-
-        final String generateBoth = getParameters().getGenerateBoth().get() ? "--generateBoth" : "";
-
-        List<String> arguments =
-                new ArrayList<>(
-                        Arrays.asList(
-                                "--abiFile",
-                                getParameters().getContractAbi().get().getAbsolutePath(),
-                                "--binFile",
-                                getParameters().getContractBin().get().getAbsolutePath(),
-                                "--outputDir",
-                                getParameters().getOutputDir().get(),
-                                "--package",
-                                getParameters().getPackageName().get(),
-                                "--contractName",
-                                getParameters().getContractName().get(),
-                                "--addressLength",
-                                String.valueOf(getParameters().getAddressLength().get()),
-                                typesFlag));
-
-        if (!generateBoth.isEmpty()) {
-            arguments.add(generateBoth);
+        final Parameters parameters = getParameters();
+        final Path outputDir = Paths.get(parameters.getOutputDir().get());
+        final Path stagingDir = Paths.get(parameters.getStagingDir().get());
+
+        final ContractWrapperCache cache =
+                parameters.getCacheDir().isPresent()
+                        ? new ContractWrapperCache(Paths.get(parameters.getCacheDir().get()))
+                        : null;
+
+        // The generator configuration is shared by all contracts in the batch
+        final ContractWrapperGenerator generator =
+                new ContractWrapperGenerator(
+                        parameters.getUseNativeJavaTypes().get(),
+                        parameters.getPrimitiveIntegers().getOrElse(false),
+                        parameters.getGenerateBoth().get(),
+                        parameters.getAddressLength().get(),
+                        parameters.getSharedStructsPackage().getOrNull(),
+                        parameters.getGenerateCodecs().getOrElse(false),
+                        parameters.getGenerateEventDispatchers().getOrElse(false),
+                        parameters.getGenerateBatchReaders().getOrElse(false),
+                        parameters.getBytecodeResources().getOrElse(false));
+
+        final boolean lowMemory = parameters.getLowMemory().getOrElse(false);
+        final String sharedStructsPackage = parameters.getSharedStructsPackage().getOrNull();
+
+        final long queueWaitMillis =
+                System.currentTimeMillis() - parameters.getSubmissionTime().get();
+
+        // Files generated and metrics for each contract, reported back to the task
+        final WrapperManifest results = new WrapperManifest();
+        final List<ContractMetrics> metrics = new ArrayList<>();
+
+        // Shared struct layouts of each contract, so the task checks them without parsing ABIs
+        final Map<String, Map<String, String>> structLayouts = new TreeMap<>();
+
+        for (final ContractSpec contract : parameters.getContracts().get()) {
+            final ContractMetrics contractMetrics = new ContractMetrics();
+            contractMetrics.setContract(contract.getContractId());
+            contractMetrics.setPackageName(contract.getPackageName());
+            contractMetrics.setQueueWaitMillis(queueWaitMillis);
+            try {
+                results.put(
+                        contract.getContractId(),
+                        generate(
+                                contract,
+                                generator,
+                                cache,
+                                stagingDir,
+                                outputDir,
+                                lowMemory,
+                                contractMetrics,
+                                sharedStructsPackage,
+                                structLayouts));
+                metrics.add(contractMetrics);
+            } catch (IOException | ClassNotFoundException e) {
+                throw new GradleException(
+                        "Could not generate wrapper for contract " + contract.getContractName(),
+                        e);
+            }
         }
 
-        SolidityFunctionWrapperGenerator.main(arguments.toArray(new String[0]));
+        try {
+            results.store(Paths.get(parameters.getResultFile().get()));
+            OBJECT_MAPPER.writeValue(new File(parameters.getMetricsFile().get()), metrics);
+            if (sharedStructsPackage != null) {
+                OBJECT_MAPPER.writeValue(
+                        new File(parameters.getStructsFile().get()), structLayouts);
+            }
+        } catch (IOException e) {
+            throw new GradleException("Could not write contract wrapper generation results", e);
+        }
     }
 
-    public interface Parameters extends WorkParameters {
+    private List<String> generate(
+            final ContractSpec contract,
+            final ContractWrapperGenerator generator,
+            final ContractWrapperCache cache,
+            final Path stagingDir,
+            final Path outputDir,
+            final boolean lowMemory,
+            final ContractMetrics metrics,
+            final String sharedStructsPackage,
+            final Map<String, Map<String, String>> structLayouts)
+            throws IOException, ClassNotFoundException {
+
+        final byte[] bin;
+        if (contract.isAbiOnly()) {
+            bin = new byte[0];
+        } else if (contract.getBin() != null) {
+            bin = contract.getBin().getBytes(StandardCharsets.UTF_8);
+        } else {
+            bin = Files.readAllBytes(contract.getContractBin().toPath());
+        }
+
+        // In low-memory mode the ABI is streamed from disk instead of being held in memory
+        final Path abiFile =
+                contract.getAbi() == null ? contract.getContractAbi().toPath() : null;
+        final byte[] abi;
+        if (contract.getAbi() != null) {
+            abi = contract.getAbi().getBytes(StandardCharsets.UTF_8);
+        } else {
+            abi = lowMemory ? null : Files.readAllBytes(abiFile);
+        }
+        final String key =
+                abi == null
+                        ? ContractWrapperCache.key(contract, abiFile, bin, generator)
+                        : ContractWrapperCache.key(contract, abi, bin, generator);
+        Path generatedDir = cache == null ? null : cache.find(key);
+
+        if (generatedDir == null) {
+            LOGGER.info("Generating {}", contract);
+            generatedDir = stagingDir.resolve(key);
+            WrapperFiles.delete(generatedDir);
+
+            final long parseStart = System.nanoTime();
+            final ContractAbi contractAbi =
+                    abi == null ? ContractAbi.parse(abiFile) : ContractAbi.parse(abi);
+            final long generationStart = System.nanoTime();
+
+            generator.generate(
+                    contract.getContractName(),
+                    contractAbi,
+                    contract.isAbiOnly() ? null : new String(bin, StandardCharsets.UTF_8),
+                    generatedDir.toFile(),
+                    contract.getPackageName());
+
+            metrics.setAbiParseMillis(toMillis(generationStart - parseStart));
+            metrics.setGenerationMillis(toMillis(System.nanoTime() - generationStart));
+            metrics.setFunctions(contractAbi.getFunctions().size());
+            metrics.setEvents(contractAbi.getEvents().size());
+
+            if (cache != null) {
+                cache.store(key, generatedDir);
+            }
+        } else {
+            LOGGER.info("Reusing cached wrapper for {}", contract);
+            metrics.setCached(true);
+        }
+
+        // Unchanged wrappers are not rewritten to keep downstream compilation incremental
+        final long bytesWritten = WrapperFiles.publish(generatedDir, outputDir);
+        if (bytesWritten == 0) {
+            LOGGER.info("Wrapper for {} is unchanged", contract);
+        }
+        metrics.setBytesWritten(bytesWritten);
+
+        final List<String> generatedFiles = WrapperFiles.listPaths(generatedDir);
+        if (sharedStructsPackage != null) {
+            structLayouts.put(
+                    contract.getContractId(),
+                    SharedStructs.readLayouts(generatedDir, generatedFiles, sharedStructsPackage));
+        }
+
+        if (generatedDir.startsWith(stagingDir)) {
+            WrapperFiles.delete(generatedDir);
+        }
+        return generatedFiles;
+    }
 
-        Property<String> getContractName();
+    private static double toMillis(final long nanos) {
+        return nanos / 1_000_000.0;
+    }
 
-        Property<File> getContractBin();
+    public interface Parameters extends WorkParameters {
 
-        Property<File> getContractAbi();
+        ListProperty<ContractSpec> getContracts();
 
         Property<String> getOutputDir();
 
-        Property<String> getPackageName();
+        Property<String> getStagingDir();
+
+        Property<String> getCacheDir();
+
+        Property<String> getResultFile();
+
+        Property<String> getMetricsFile();
+
+        /** File of the shared struct layouts by contract, only written with shared structs. */
+        Property<String> getStructsFile();
+
+        /** Time in milliseconds the batch was submitted, to measure the worker queue wait. */
+        Property<Long> getSubmissionTime();
 
         Property<Integer> getAddressLength();
 
         Property<Boolean> getUseNativeJavaTypes();
 
+        Property<Boolean> getPrimitiveIntegers();
+
         Property<Boolean> getGenerateBoth();
+
+        Property<Boolean> getLowMemory();
+
+        Property<String> getSharedStructsPackage();
+
+        Property<Boolean> getGenerateCodecs();
+
+        Property<Boolean> getGenerateEventDispatchers();
+
+        Property<Boolean> getGenerateBatchReaders();
+
+        Property<Boolean> getBytecodeResources();
     }
 }
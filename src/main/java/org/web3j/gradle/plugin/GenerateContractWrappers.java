@@ -13,127 +13,734 @@
 package org.web3j.gradle.plugin;
 
 import java.io.File;
-import java.text.MessageFormat;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.BiPredicate;
 import javax.inject.Inject;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileSystemOperations;
+import org.gradle.api.file.FileTree;
+import org.gradle.api.file.FileType;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.MapProperty;
+import org.gradle.api.provider.Property;
 import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.IgnoreEmptyDirectories;
 import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.SkipWhenEmpty;
 import org.gradle.api.tasks.SourceTask;
 import org.gradle.api.tasks.TaskAction;
+import org.gradle.work.FileChange;
+import org.gradle.work.Incremental;
+import org.gradle.work.InputChanges;
+import org.gradle.workers.WorkQueue;
 import org.gradle.workers.WorkerExecutor;
 
-@CacheableTask
-public class GenerateContractWrappers extends SourceTask {
+import org.web3j.protocol.ObjectMapperFactory;
 
-    private final WorkerExecutor executor;
+@CacheableTask
+public abstract class GenerateContractWrappers extends SourceTask {
 
-    @Input private String generatedJavaPackageName;
+    private static final String BIN_EXTENSION = ".bin";
+    private static final String ABI_EXTENSION = ".abi";
 
-    @Input @Optional private Boolean useNativeJavaTypes;
+    /** Separates the output file, source unit and name in solc JSON output contract ids. */
+    private static final String SOLC_CONTRACT_SEPARATOR = ":";
 
-    @Input @Optional private List<String> excludedContracts;
+    /** Number of slowest contracts logged after generation. */
+    private static final int SLOWEST_CONTRACTS = 10;
 
-    @Input @Optional private List<String> includedContracts;
+    private static final ObjectMapper OBJECT_MAPPER = ObjectMapperFactory.getObjectMapper();
 
-    @Input @Optional private Integer addressLength;
+    private final WorkerExecutor executor;
 
-    @Input @Optional private Boolean generateBoth;
+    private final FileSystemOperations fileSystemOperations;
 
     @Inject
-    public GenerateContractWrappers(final WorkerExecutor executor) {
+    public GenerateContractWrappers(
+            final WorkerExecutor executor, final FileSystemOperations fileSystemOperations) {
         this.executor = executor;
+        this.fileSystemOperations = fileSystemOperations;
+    }
+
+    /**
+     * Contract <code>.bin</code> and <code>.abi</code> files. Changes are tracked per file so only
+     * the affected contracts are regenerated.
+     */
+    @Override
+    @Incremental
+    @InputFiles
+    @SkipWhenEmpty
+    @IgnoreEmptyDirectories
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public FileTree getSource() {
+        return super.getSource();
     }
 
+    @Input
+    public abstract Property<String> getGeneratedJavaPackageName();
+
+    /** Package templates by contract name or path pattern, the first matching one is used. */
+    @Input
+    @Optional
+    public abstract MapProperty<String, String> getPackageMappings();
+
+    @Input
+    @Optional
+    public abstract Property<Boolean> getUseNativeJavaTypes();
+
+    /** Use Java primitive types for integers and booleans in native wrappers. */
+    @Input
+    @Optional
+    public abstract Property<Boolean> getPrimitiveIntegers();
+
+    @Input
+    @Optional
+    public abstract ListProperty<String> getExcludedContracts();
+
+    @Input
+    @Optional
+    public abstract ListProperty<String> getIncludedContracts();
+
+    @Input
+    @Optional
+    public abstract Property<Integer> getAddressLength();
+
+    @Input
+    @Optional
+    public abstract Property<Boolean> getGenerateBoth();
+
+    /** Contract name or path patterns generated without bytecode and deployment methods. */
+    @Input
+    @Optional
+    public abstract ListProperty<String> getAbiOnlyContracts();
+
+    /** Package of the structs shared between wrappers, nested in each wrapper if not set. */
+    @Input
+    @Optional
+    public abstract Property<String> getSharedStructsPackage();
+
+    /** Generate a codec next to each wrapper, encoding calls into reusable buffers. */
+    @Input
+    @Optional
+    public abstract Property<Boolean> getGenerateCodecs();
+
+    /** Generate an event dispatcher next to each wrapper, matching logs by their topic. */
+    @Input
+    @Optional
+    public abstract Property<Boolean> getGenerateEventDispatchers();
+
+    /** Generate a batch reader next to each wrapper, sending view calls in one request. */
+    @Input
+    @Optional
+    public abstract Property<Boolean> getGenerateBatchReaders();
+
+    /** Write contract bytecode to compressed resources next to the wrappers, loaded lazily. */
+    @Input
+    @Optional
+    public abstract Property<Boolean> getBytecodeResources();
+
+    /** Generate wrappers from solc JSON output files instead of <code>.bin</code>/.abi files. */
+    @Input
+    @Optional
+    public abstract Property<Boolean> getSolcJsonOutput();
+
+    @OutputDirectory
+    public abstract DirectoryProperty getOutputDirectory();
+
+    /** Index of the files generated per contract, used to delete stale wrappers. */
+    @OutputFile
+    public abstract RegularFileProperty getManifestFile();
+
+    /** Directory of the contract wrapper generation timing reports. */
+    @Internal
+    public abstract DirectoryProperty getReportsDirectory();
+
+    @Internal
+    public abstract Property<Integer> getWorkerBatchSize();
+
+    @Internal
+    public abstract Property<WorkerIsolation> getWorkerIsolation();
+
+    @Internal
+    public abstract Property<Integer> getWorkerMaxParallelism();
+
+    @Internal
+    public abstract Property<String> getWorkerMaxHeapSize();
+
+    @Internal
+    public abstract DirectoryProperty getGenerationCacheDir();
+
+    /** Streams contract ABIs and serializes the generation of large contracts. */
+    @Internal
+    public abstract Property<Boolean> getLowMemoryGeneration();
+
+    /** ABI size in bytes above which a contract is large in low-memory mode. */
+    @Internal
+    public abstract Property<Integer> getLowMemoryAbiSize();
+
     @TaskAction
-    void generateContractWrappers() {
-
-        final String outputDir = getOutputs().getFiles().getSingleFile().getAbsolutePath();
-
-        for (final File contractBin : getSource()) {
-
-            final String contractName = contractBin.getName().replace(".bin", "");
-
-            if (shouldGenerateContract(contractName)) {
-                final String packageName =
-                        MessageFormat.format(
-                                getGeneratedJavaPackageName(), contractName.toLowerCase());
-
-                final File contractAbi =
-                        new File(contractBin.getParentFile(), contractName + ".abi");
-
-                executor.noIsolation()
-                        .submit(
-                                GenerateContractWrapper.class,
-                                (GenerateContractWrapper.Parameters params) -> {
-                                    params.getContractName().set(contractName);
-                                    params.getContractBin().set(contractBin);
-                                    params.getContractAbi().set(contractAbi);
-                                    params.getOutputDir().set(outputDir);
-                                    params.getPackageName().set(packageName);
-                                    params.getAddressLength().set(addressLength);
-                                    params.getUseNativeJavaTypes().set(useNativeJavaTypes);
-                                    params.getGenerateBoth().set(generateBoth);
-                                });
+    void generateContractWrappers(final InputChanges inputChanges) {
+
+        final File outputDir = getOutputDirectory().get().getAsFile();
+        final Path manifestFile = getManifestFile().get().getAsFile().toPath();
+
+        // Contracts are identified by their path without the .bin/.abi extension,
+        // relative to their source directory
+        final Map<String, File> contracts = new LinkedHashMap<>();
+
+        // Solc JSON output files by their path without extension, each compiling many contracts
+        final Map<String, File> solcOutputs = new LinkedHashMap<>();
+        final boolean solcJsonOutput = getSolcJsonOutput().getOrElse(false);
+
+        // Previously generated files which may no longer be produced
+        final Set<String> staleFiles = new HashSet<>();
+
+        final WrapperManifest manifest;
+
+        if (inputChanges.isIncremental()) {
+            manifest = loadManifest(manifestFile);
+            for (final FileChange change : inputChanges.getFileChanges(getSource())) {
+                if (change.getFileType() == FileType.DIRECTORY
+                        || isSolcOutput(change.getFile()) != solcJsonOutput) {
+                    continue;
+                }
+                final String contractId = toContractId(change.getNormalizedPath());
+                if (solcJsonOutput) {
+                    solcOutputs.put(contractId, change.getFile());
+                    staleFiles.addAll(
+                            manifest.removeWithPrefix(contractId + SOLC_CONTRACT_SEPARATOR));
+                } else {
+                    contracts.put(contractId, toContract(change.getFile()));
+                    staleFiles.addAll(manifest.remove(contractId));
+                }
+            }
+        } else {
+            // Non-file inputs changed or no history, Gradle has already removed the previous
+            // outputs including the manifest, so every contract is generated from scratch
+            manifest = new WrapperManifest();
+            visitSources(contracts, solcOutputs);
+        }
+
+        final List<ContractSpec> contractSpecs = buildContractSpecs(contracts, solcOutputs);
+
+        // Layouts of the shared structs of the contracts not regenerated, read before the
+        // workers overwrite the struct classes
+        final String sharedStructsPackage = getSharedStructsPackage().getOrNull();
+        final Map<String, String> previousLayouts =
+                sharedStructsPackage == null
+                        ? Map.of()
+                        : readStructLayouts(outputDir.toPath(), manifest, sharedStructsPackage);
+
+        final File stagingDir = new File(getTemporaryDir(), "staging");
+        final File resultsDir = new File(getTemporaryDir(), "results");
+        fileSystemOperations.delete(spec -> spec.delete(resultsDir));
+
+        final WorkQueue workQueue = buildWorkQueue();
+        final long startTime = System.currentTimeMillis();
+
+        final List<ContractMetrics> metrics = new ArrayList<>();
+        final Map<String, Map<String, String>> structLayouts = new TreeMap<>();
+        final Set<String> generatedContracts = new HashSet<>();
+        contractSpecs.forEach(contract -> generatedContracts.add(contract.getContractId()));
+
+        final int batchCount =
+                submitContracts(workQueue, contractSpecs, 0, outputDir, stagingDir, resultsDir);
+        workQueue.await();
+        readResults(resultsDir, 0, batchCount, manifest, metrics, structLayouts);
+
+        // Contracts sharing a struct must agree on its components, so changing a shared
+        // struct regenerates every other contract to check and update all its users
+        if (hasChangedSharedStructs(structLayouts, previousLayouts)) {
+            getLogger().info("Shared struct components changed, regenerating all contracts");
+            contracts.clear();
+            solcOutputs.clear();
+            visitSources(contracts, solcOutputs);
+            final List<ContractSpec> otherSpecs = buildContractSpecs(contracts, solcOutputs);
+            otherSpecs.removeIf(
+                    contract -> generatedContracts.contains(contract.getContractId()));
+
+            final int otherBatchCount =
+                    submitContracts(
+                            workQueue, otherSpecs, batchCount, outputDir, stagingDir, resultsDir);
+            workQueue.await();
+            readResults(resultsDir, batchCount, otherBatchCount, manifest, metrics, structLayouts);
+        }
+        final long wallTimeMillis = System.currentTimeMillis() - startTime;
+
+        try {
+            if (!metrics.isEmpty()) {
+                writeReport(metrics, wallTimeMillis);
+            }
+
+            // Delete exactly the files no longer generated for any contract
+            staleFiles.removeAll(manifest.getFiles());
+            if (!staleFiles.isEmpty()) {
+                getLogger().info("Deleting {} stale contract wrapper files", staleFiles.size());
+                WrapperFiles.deleteAll(outputDir.toPath(), staleFiles);
             }
+
+            manifest.store(manifestFile);
+        } catch (IOException e) {
+            throw new GradleException("Could not update contract wrappers manifest", e);
         }
+
+        // Checked once the manifest is stored, so the next build knows the generated files
+        checkStructLayouts(structLayouts);
     }
 
-    private boolean shouldGenerateContract(final String contractName) {
-        if (includedContracts == null || includedContracts.isEmpty()) {
-            return excludedContracts == null || !excludedContracts.contains(contractName);
-        } else {
-            return includedContracts.contains(contractName);
+    /** Adds every contract or solc output file of the sources, for a full regeneration. */
+    private void visitSources(
+            final Map<String, File> contracts, final Map<String, File> solcOutputs) {
+        final boolean solcJsonOutput = getSolcJsonOutput().getOrElse(false);
+        getSource()
+                .visit(
+                        details -> {
+                            if (details.isDirectory()
+                                    || isSolcOutput(details.getFile()) != solcJsonOutput) {
+                                return;
+                            }
+                            final String contractId = toContractId(details.getPath());
+                            if (solcJsonOutput) {
+                                solcOutputs.put(contractId, details.getFile());
+                            } else {
+                                contracts.put(contractId, toContract(details.getFile()));
+                            }
+                        });
+    }
+
+    /** Builds the specs of the contracts to generate, applying the contract filters. */
+    private List<ContractSpec> buildContractSpecs(
+            final Map<String, File> contracts, final Map<String, File> solcOutputs) {
+
+        // Contract filters are compiled once and applied before reading any ABI
+        final List<ContractSpec> contractSpecs = new ArrayList<>();
+        final BiPredicate<String, String> contractFilter = buildContractFilter();
+        final ContractMatcher abiOnlyContracts =
+                new ContractMatcher(getAbiOnlyContracts().getOrElse(List.of()));
+        final PackageMapper packageMapper =
+                new PackageMapper(
+                        getGeneratedJavaPackageName().get(),
+                        getPackageMappings().getOrElse(Map.of()));
+
+        for (final Map.Entry<String, File> contract : contracts.entrySet()) {
+
+            final String contractName = contract.getValue().getName();
+            final File contractBin = new File(contract.getValue().getPath() + BIN_EXTENSION);
+            final File contractAbi = new File(contract.getValue().getPath() + ABI_EXTENSION);
+
+            // Removed or excluded contracts are left out, so their wrappers become stale
+            if (contractFilter.test(contractName, contract.getKey()) && contractAbi.isFile()) {
+                // Contracts without bytecode, such as interfaces, are always ABI-only
+                final boolean abiOnly =
+                        abiOnlyContracts.matches(contractName, contract.getKey())
+                                || contractBin.length() == 0;
+                contractSpecs.add(
+                        new ContractSpec(
+                                contract.getKey(),
+                                contractName,
+                                abiOnly ? null : contractBin,
+                                contractAbi,
+                                packageMapper.map(contractName, contract.getKey())));
+            }
+        }
+
+        for (final Map.Entry<String, File> solcOutput : solcOutputs.entrySet()) {
+            // Deleted output files are left out, so their wrappers become stale
+            if (solcOutput.getValue().isFile()) {
+                contractSpecs.addAll(
+                        readSolcOutput(
+                                solcOutput.getKey(),
+                                solcOutput.getValue(),
+                                contractFilter,
+                                abiOnlyContracts,
+                                packageMapper));
+            }
+        }
+
+        return contractSpecs;
+    }
+
+    /**
+     * Submits the contracts in batches numbered from a first index, generating large contracts
+     * before any other batch in low-memory mode.
+     *
+     * @return the index following the last submitted batch
+     */
+    private int submitContracts(
+            final WorkQueue workQueue,
+            final List<ContractSpec> contractSpecs,
+            final int firstIndex,
+            final File outputDir,
+            final File stagingDir,
+            final File resultsDir) {
+        int index = firstIndex;
+
+        final List<ContractSpec> largeContracts = removeLargeContracts(contractSpecs);
+        if (!largeContracts.isEmpty()) {
+            // Large contracts are generated one at a time in a single action, and no other
+            // action is submitted until they are done, whatever the worker isolation
+            getLogger()
+                    .info(
+                            "Generating {} large contract wrappers before other contracts",
+                            largeContracts.size());
+            submitBatch(workQueue, largeContracts, index++, outputDir, stagingDir, resultsDir);
+            workQueue.await();
+        }
+
+        for (final List<ContractSpec> batch : buildBatches(contractSpecs)) {
+            submitBatch(workQueue, batch, index++, outputDir, stagingDir, resultsDir);
+        }
+        return index;
+    }
+
+    /** Reads the generated files, metrics and struct layouts reported by a range of batches. */
+    private static void readResults(
+            final File resultsDir,
+            final int fromIndex,
+            final int toIndex,
+            final WrapperManifest manifest,
+            final List<ContractMetrics> metrics,
+            final Map<String, Map<String, String>> structLayouts) {
+        try {
+            for (int i = fromIndex; i < toIndex; i++) {
+                manifest.putAll(WrapperManifest.load(resultFile(resultsDir, i, ".manifest")));
+                metrics.addAll(
+                        OBJECT_MAPPER.readValue(
+                                resultFile(resultsDir, i, ".json").toFile(),
+                                new TypeReference<List<ContractMetrics>>() {}));
+                final Path structsFile = resultFile(resultsDir, i, ".structs");
+                if (Files.isRegularFile(structsFile)) {
+                    structLayouts.putAll(
+                            OBJECT_MAPPER.readValue(
+                                    structsFile.toFile(),
+                                    new TypeReference<Map<String, Map<String, String>>>() {}));
+                }
+            }
+        } catch (IOException e) {
+            throw new GradleException("Could not read contract wrapper generation results", e);
+        }
+    }
+
+    private static Path resultFile(final File resultsDir, final int index, final String extension) {
+        return resultsDir.toPath().resolve("batch-" + index + extension);
+    }
+
+    /**
+     * Maps the shared struct classes of the contracts in the manifest to the Solidity layout
+     * recorded in their generated class.
+     */
+    private static Map<String, String> readStructLayouts(
+            final Path outputDir, final WrapperManifest manifest, final String sharedPackage) {
+        try {
+            return SharedStructs.readLayouts(outputDir, manifest.getFiles(), sharedPackage);
+        } catch (IOException e) {
+            throw new GradleException("Could not read shared structs of " + outputDir, e);
+        }
+    }
+
+    /**
+     * Whether a shared struct of the regenerated contracts has different components than the
+     * struct class previously generated for the other contracts.
+     */
+    private static boolean hasChangedSharedStructs(
+            final Map<String, Map<String, String>> structLayouts,
+            final Map<String, String> previousLayouts) {
+        for (final Map<String, String> contractLayouts : structLayouts.values()) {
+            for (final Map.Entry<String, String> layout : contractLayouts.entrySet()) {
+                final String previous = previousLayouts.get(layout.getKey());
+                if (previous != null && !previous.equals(layout.getValue())) {
+                    return true;
+                }
+            }
         }
+        return false;
+    }
+
+    /** Fails if a shared struct has different components in two generated contracts. */
+    private static void checkStructLayouts(final Map<String, Map<String, String>> structLayouts) {
+        final Map<String, String> layouts = new HashMap<>();
+        final Map<String, String> layoutContracts = new HashMap<>();
+        for (final Map.Entry<String, Map<String, String>> contract : structLayouts.entrySet()) {
+            for (final Map.Entry<String, String> layout : contract.getValue().entrySet()) {
+                final String existing = layouts.putIfAbsent(layout.getKey(), layout.getValue());
+                if (existing == null) {
+                    layoutContracts.put(layout.getKey(), contract.getKey());
+                } else if (!existing.equals(layout.getValue())) {
+                    throw new GradleException(
+                            String.format(
+                                    "Struct %s has different components in contracts %s (%s)"
+                                            + " and %s (%s), rename one of them or generate"
+                                            + " them nested without sharedStructsPackage",
+                                    layout.getKey(),
+                                    layoutContracts.get(layout.getKey()),
+                                    existing,
+                                    contract.getKey(),
+                                    layout.getValue()));
+                }
+            }
+        }
+    }
+
+    /** Submits a batch of contracts as a worker action writing its results by index. */
+    private void submitBatch(
+            final WorkQueue workQueue,
+            final List<ContractSpec> batch,
+            final int index,
+            final File outputDir,
+            final File stagingDir,
+            final File resultsDir) {
+        final Path resultFile = resultFile(resultsDir, index, ".manifest");
+        final Path metricsFile = resultFile(resultsDir, index, ".json");
+        final Path structsFile = resultFile(resultsDir, index, ".structs");
+
+        workQueue.submit(
+                GenerateContractWrapper.class,
+                (GenerateContractWrapper.Parameters params) -> {
+                    params.getContracts().set(batch);
+                    params.getOutputDir().set(outputDir.getAbsolutePath());
+                    params.getStagingDir().set(stagingDir.getAbsolutePath());
+                    params.getResultFile().set(resultFile.toAbsolutePath().toString());
+                    params.getMetricsFile().set(metricsFile.toAbsolutePath().toString());
+                    params.getStructsFile().set(structsFile.toAbsolutePath().toString());
+                    params.getSubmissionTime().set(System.currentTimeMillis());
+                    params.getCacheDir()
+                            .set(
+                                    getGenerationCacheDir()
+                                            .map(dir -> dir.getAsFile().getAbsolutePath()));
+                    params.getAddressLength().set(getAddressLength());
+                    params.getUseNativeJavaTypes().set(getUseNativeJavaTypes());
+                    params.getPrimitiveIntegers().set(getPrimitiveIntegers());
+                    params.getGenerateBoth().set(getGenerateBoth());
+                    params.getLowMemory().set(getLowMemoryGeneration());
+                    params.getSharedStructsPackage().set(getSharedStructsPackage());
+                    params.getGenerateCodecs().set(getGenerateCodecs());
+                    params.getGenerateEventDispatchers().set(getGenerateEventDispatchers());
+                    params.getGenerateBatchReaders().set(getGenerateBatchReaders());
+                    params.getBytecodeResources().set(getBytecodeResources());
+                });
     }
 
-    // Getters and setters
-    public String getGeneratedJavaPackageName() {
-        return generatedJavaPackageName;
+    /**
+     * Removes the contracts with an ABI over <code>lowMemoryAbiSize</code> in low-memory mode.
+     *
+     * @return the removed large contracts, empty if low-memory mode is disabled
+     */
+    private List<ContractSpec> removeLargeContracts(final List<ContractSpec> contractSpecs) {
+        final List<ContractSpec> largeContracts = new ArrayList<>();
+        if (getLowMemoryGeneration().getOrElse(false)) {
+            final long largeAbiSize =
+                    getLowMemoryAbiSize().getOrElse(Web3jExtension.DEFAULT_LOW_MEMORY_ABI_SIZE);
+            for (final ContractSpec contract : contractSpecs) {
+                if (abiSize(contract) > largeAbiSize) {
+                    largeContracts.add(contract);
+                }
+            }
+            contractSpecs.removeAll(largeContracts);
+        }
+        return largeContracts;
     }
 
-    public void setGeneratedJavaPackageName(final String generatedJavaPackageName) {
-        this.generatedJavaPackageName = generatedJavaPackageName;
+    /** Splits the contracts into the batches submitted as worker actions. */
+    private List<List<ContractSpec>> buildBatches(final List<ContractSpec> contracts) {
+        final int batchSize = buildBatchSize(contracts.size());
+        getLogger()
+                .info(
+                        "Generating {} contract wrappers in batches of {}",
+                        contracts.size(),
+                        batchSize);
+
+        final List<List<ContractSpec>> batches = new ArrayList<>();
+        for (int i = 0; i < contracts.size(); i += batchSize) {
+            batches.add(
+                    new ArrayList<>(
+                            contracts.subList(i, Math.min(i + batchSize, contracts.size()))));
+        }
+        return batches;
     }
 
-    public Boolean getUseNativeJavaTypes() {
-        return useNativeJavaTypes;
+    /** Size of a contract ABI, without reading the ABI file. */
+    private static long abiSize(final ContractSpec contract) {
+        return contract.getAbi() != null
+                ? contract.getAbi().length()
+                : contract.getContractAbi().length();
     }
 
-    public void setUseNativeJavaTypes(final Boolean useNativeJavaTypes) {
-        this.useNativeJavaTypes = useNativeJavaTypes;
+    /**
+     * Builds the number of contracts per worker action, increasing the configured batch size when
+     * needed so no more than <code>workerMaxParallelism</code> actions are submitted.
+     */
+    private int buildBatchSize(final int contractCount) {
+        int batchSize = Math.max(getWorkerBatchSize().getOrElse(1), 1);
+
+        final int maxParallelism = getWorkerMaxParallelism().getOrElse(0);
+        if (maxParallelism > 0) {
+            final int minBatchSize = (contractCount + maxParallelism - 1) / maxParallelism;
+            batchSize = Math.max(batchSize, minBatchSize);
+        }
+        return batchSize;
     }
 
-    public List<String> getExcludedContracts() {
-        return excludedContracts;
+    private WorkQueue buildWorkQueue() {
+        switch (getWorkerIsolation().getOrElse(WorkerIsolation.NONE)) {
+            case CLASSLOADER:
+                return executor.classLoaderIsolation();
+            case PROCESS:
+                return executor.processIsolation(
+                        spec -> {
+                            if (getWorkerMaxHeapSize().isPresent()) {
+                                spec.forkOptions(
+                                        options ->
+                                                options.setMaxHeapSize(
+                                                        getWorkerMaxHeapSize().get()));
+                            }
+                        });
+            default:
+                return executor.noIsolation();
+        }
     }
 
-    public void setExcludedContracts(final List<String> excludedContracts) {
-        this.excludedContracts = excludedContracts;
+    /**
+     * Writes the contract generation metrics as a JSON report, and logs the slowest contracts.
+     */
+    private void writeReport(final List<ContractMetrics> metrics, final long wallTimeMillis)
+            throws IOException {
+
+        metrics.sort(Comparator.comparingDouble(ContractMetrics::totalMillis).reversed());
+
+        final Map<String, Object> report = new LinkedHashMap<>();
+        report.put("task", getPath());
+        report.put("contracts", metrics.size());
+        report.put("cached", metrics.stream().filter(ContractMetrics::isCached).count());
+        report.put("wallTimeMillis", wallTimeMillis);
+        report.put(
+                "bytesWritten", metrics.stream().mapToLong(ContractMetrics::getBytesWritten).sum());
+        report.put("metrics", metrics);
+
+        final File reportFile =
+                getReportsDirectory().file(getName() + ".json").get().getAsFile();
+        reportFile.getParentFile().mkdirs();
+        OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValue(reportFile, report);
+
+        if (getLogger().isInfoEnabled()) {
+            getLogger()
+                    .info(
+                            "Generated {} contract wrappers in {} ms, report at {}",
+                            metrics.size(),
+                            wallTimeMillis,
+                            reportFile);
+            for (final ContractMetrics contract :
+                    metrics.subList(0, Math.min(SLOWEST_CONTRACTS, metrics.size()))) {
+                getLogger()
+                        .info(
+                                String.format(
+                                        "  %s: %.1f ms (ABI parse %.1f ms, generation %.1f ms,"
+                                                + " queue wait %d ms)",
+                                        contract.getContract(),
+                                        contract.totalMillis(),
+                                        contract.getAbiParseMillis(),
+                                        contract.getGenerationMillis(),
+                                        contract.getQueueWaitMillis()));
+            }
+        }
     }
 
-    public List<String> getIncludedContracts() {
-        return includedContracts;
+    /** Reads every contract in a solc JSON output file in a single pass. */
+    private List<ContractSpec> readSolcOutput(
+            final String outputId,
+            final File outputFile,
+            final BiPredicate<String, String> contractFilter,
+            final ContractMatcher abiOnlyContracts,
+            final PackageMapper packageMapper) {
+        final List<ContractSpec> contractSpecs = new ArrayList<>();
+        try {
+            for (final SolcOutput.Contract contract :
+                    SolcOutput.read(outputFile, contractFilter)) {
+                final boolean abiOnly =
+                        abiOnlyContracts.matches(contract.getName(), contract.getSourceUnit())
+                                || contract.getBin().isEmpty();
+                contractSpecs.add(
+                        new ContractSpec(
+                                outputId
+                                        + SOLC_CONTRACT_SEPARATOR
+                                        + contract.getSourceUnit()
+                                        + SOLC_CONTRACT_SEPARATOR
+                                        + contract.getName(),
+                                contract.getName(),
+                                abiOnly ? null : contract.getBin(),
+                                contract.getAbi(),
+                                packageMapper.map(
+                                        contract.getName(), contract.getSourceUnit())));
+            }
+        } catch (IOException e) {
+            throw new GradleException("Could not read solc output " + outputFile, e);
+        }
+        return contractSpecs;
     }
 
-    public void setIncludedContracts(final List<String> includedContracts) {
-        this.includedContracts = includedContracts;
+    private static boolean isSolcOutput(final File file) {
+        return file.getName().endsWith(SolcOutput.EXTENSION);
     }
 
-    public Integer getAddressLength() {
-        return addressLength;
+    private static WrapperManifest loadManifest(final Path manifestFile) {
+        try {
+            return WrapperManifest.load(manifestFile);
+        } catch (IOException e) {
+            throw new GradleException("Could not read contract wrappers manifest", e);
+        }
     }
 
-    public void setAddressLength(final Integer addressLength) {
-        this.addressLength = addressLength;
+    private static String toContractId(final String path) {
+        final int extension = path.lastIndexOf('.');
+        return extension > 0 ? path.substring(0, extension) : path;
     }
 
-    public Boolean getGenerateBoth() {
-        return generateBoth;
+    private static File toContract(final File file) {
+        final String fileName = file.getName();
+        final int extension = fileName.lastIndexOf('.');
+        return extension > 0
+                ? new File(file.getParentFile(), fileName.substring(0, extension))
+                : file;
     }
 
-    public void setGenerateBoth(Boolean generateBoth) {
-        this.generateBoth = generateBoth;
+    /**
+     * Builds the filter of the contracts to generate given their name and source path, where the
+     * included contracts have preference over the excluded ones.
+     */
+    private BiPredicate<String, String> buildContractFilter() {
+        final ContractMatcher includedContracts =
+                new ContractMatcher(getIncludedContracts().getOrElse(List.of()));
+        final ContractMatcher excludedContracts =
+                new ContractMatcher(getExcludedContracts().getOrElse(List.of()));
+
+        if (includedContracts.isEmpty()) {
+            return (contractName, contractPath) ->
+                    !excludedContracts.matches(contractName, contractPath);
+        } else {
+            return includedContracts::matches;
+        }
     }
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2019 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.gradle.plugin;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import javax.lang.model.SourceVersion;
+
+/**
+ * Maps contracts to the package of their wrappers using an ordered table of contract patterns to
+ * {@link MessageFormat} templates, falling back to a default template. Templates accept the
+ * contract name in lower case (<code>{0}</code>) and its source directory as a package name
+ * (<code>{1}</code>), and are compiled once.
+ */
+class PackageMapper {
+
+    private final List<ContractMatcher> matchers = new ArrayList<>();
+    private final List<MessageFormat> templates = new ArrayList<>();
+    private final MessageFormat defaultTemplate;
+
+    PackageMapper(final String defaultTemplate, final Map<String, String> mappings) {
+        mappings.forEach(
+                (pattern, template) -> {
+                    matchers.add(new ContractMatcher(List.of(pattern)));
+                    templates.add(new MessageFormat(template));
+                });
+        this.defaultTemplate = new MessageFormat(defaultTemplate);
+    }
+
+    /**
+     * Builds the package of a contract given its name and source path with '/' separators, using
+     * the first matching template.
+     */
+    String map(final String contractName, final String contractPath) {
+        MessageFormat template = defaultTemplate;
+        for (int i = 0; i < matchers.size(); i++) {
+            if (matchers.get(i).matches(contractName, contractPath)) {
+                template = templates.get(i);
+                break;
+            }
+        }
+        final String packageName =
+                template.format(
+                        new Object[] {contractName.toLowerCase(), toPackageName(contractPath)});
+
+        // An empty source directory may leave consecutive or trailing dots
+        return packageName.replaceAll("\\.{2,}", ".").replaceAll("^\\.|\\.$", "");
+    }
+
+    /** Converts the directory of a source path into a valid package name. */
+    private static String toPackageName(final String contractPath) {
+        final int directoryEnd = contractPath.lastIndexOf('/');
+        if (directoryEnd < 0) {
+            return "";
+        }
+        final StringJoiner packageName = new StringJoiner(".");
+        for (final String directory : contractPath.substring(0, directoryEnd).split("/")) {
+            if (directory.isEmpty() || directory.equals(".")) {
+                continue;
+            }
+            String segment = directory.toLowerCase().replaceAll("[^a-z0-9_$]", "_");
+            if (!SourceVersion.isIdentifier(segment) || SourceVersion.isKeyword(segment)) {
+                segment = "_" + segment;
+            }
+            packageName.add(segment);
+        }
+        return packageName.toString();
+    }
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright 2019 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.gradle.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.web3j.protocol.core.methods.response.AbiDefinition;
+import org.web3j.utils.Strings;
+
+/**
+ * Narrows the integer and boolean types of a generated native wrapper to Java primitive types
+ * holding all of their values, see {@link ContractAbi#primitiveType(String)}: function parameters,
+ * single return values and event response fields. Parameters are range checked by the web3j
+ * numeric type they are wrapped in, and decoded values are converted with <code>intValueExact()
+ * </code> or <code>longValueExact()</code>. Arrays, tuples and structs keep their native types.
+ */
+final class PrimitiveIntegers {
+
+    private static final String PAYABLE = "payable";
+
+    private static final String SINGLE_VALUE_RETURN =
+            "return executeRemoteCallSingleValueReturn(function, BigInteger.class);";
+
+    /** Methods calling or sending a function, see <code>SolidityFunctionWrapper</code>. */
+    private static final Pattern FUNCTION_METHOD =
+            Pattern.compile("public RemoteFunctionCall<([^\n]+?)> (\\w+)\\(([^)]*)\\) \\{");
+
+    /** Prefixes of the call and send methods generated for the same function. */
+    private static final List<String> METHOD_PREFIXES = List.of("", "call_", "send_");
+
+    private static final Pattern RESPONSE_CLASS =
+            Pattern.compile("^\\s+public static class (\\w+) extends BaseEventResponse \\{$");
+
+    private static final Pattern RESPONSE_FIELD =
+            Pattern.compile("^(\\s+public )(BigInteger|Boolean)( (\\w+);)$");
+
+    private static final Pattern RESPONSE_INSTANCE =
+            Pattern.compile("\\b(\\w+) typedResponse = new \\1\\(\\);");
+
+    private static final Pattern RESPONSE_ASSIGNMENT =
+            Pattern.compile(
+                    "^(\\s+typedResponse\\.(\\w+) = )\\(BigInteger\\) (.+)\\.getValue\\(\\);$");
+
+    private PrimitiveIntegers() {}
+
+    /** Rewrites the wrapper of a contract to use primitive types. */
+    static void narrow(
+            final File outputDir,
+            final String contractName,
+            final String packageName,
+            final ContractAbi abi)
+            throws IOException {
+
+        final Path wrapperFile =
+                outputDir
+                        .toPath()
+                        .resolve(packageName.replace('.', File.separatorChar))
+                        .resolve(Strings.capitaliseFirstLetter(contractName) + ".java");
+
+        final String source =
+                narrowEvents(
+                        narrowFunctions(
+                                new String(
+                                        Files.readAllBytes(wrapperFile), StandardCharsets.UTF_8),
+                                abi),
+                        abi,
+                        wrapperFile);
+        Files.write(wrapperFile, source.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String narrowFunctions(final String source, final ContractAbi abi) {
+        final Map<String, List<AbiDefinition>> functions = new HashMap<>();
+        for (final AbiDefinition function : abi.getFunctions()) {
+            functions.computeIfAbsent(function.getName(), name -> new ArrayList<>()).add(function);
+        }
+
+        final StringBuilder narrowed = new StringBuilder(source.length());
+        final Matcher matcher = FUNCTION_METHOD.matcher(source);
+        int end = 0;
+        while (matcher.find()) {
+            final List<String> parameters = splitParameters(matcher.group(3));
+            final AbiDefinition function =
+                    findFunction(functions, matcher.group(2), parameters);
+            if (function == null) {
+                continue;
+            }
+            narrowed.append(source, end, matcher.start());
+
+            final List<AbiDefinition.NamedType> inputs = function.getInputs();
+            final StringBuilder declaration = new StringBuilder();
+            for (int i = 0; i < parameters.size(); i++) {
+                declaration.append(
+                        i < inputs.size()
+                                ? narrowParameter(parameters.get(i), inputs.get(i).getType())
+                                : parameters.get(i));
+                if (i < parameters.size() - 1) {
+                    declaration.append(',');
+                }
+            }
+
+            // Only calls decode a single value, transactions return their receipt
+            final int bodyEnd = source.indexOf("\n    }\n", matcher.end());
+            final String body = source.substring(matcher.end(), bodyEnd);
+            final List<AbiDefinition.NamedType> outputs = function.getOutputs();
+            final String returnType =
+                    outputs.size() == 1
+                            ? ContractAbi.primitiveType(outputs.get(0).getType())
+                            : null;
+            final boolean narrowReturn =
+                    ("int".equals(returnType) || "long".equals(returnType))
+                            && matcher.group(1).equals("BigInteger")
+                            && body.contains(SINGLE_VALUE_RETURN);
+            narrowed.append("public RemoteFunctionCall<")
+                    .append(
+                            narrowReturn
+                                    ? (returnType.equals("int") ? "Integer" : "Long")
+                                    : matcher.group(1))
+                    .append("> ")
+                    .append(matcher.group(2))
+                    .append('(')
+                    .append(declaration)
+                    .append(") {")
+                    .append(
+                            narrowReturn
+                                    ? body.replace(SINGLE_VALUE_RETURN, convertedReturn(returnType))
+                                    : body);
+            end = bodyEnd;
+        }
+        return narrowed.append(source, end, source.length()).toString();
+    }
+
+    /** Converts the decoded value of a call, instead of returning it as is. */
+    private static String convertedReturn(final String primitiveType) {
+        return "return new RemoteFunctionCall<>(\n"
+                + "                function,\n"
+                + "                () -> executeCallSingleValueReturn(function, BigInteger.class)."
+                + primitiveType
+                + "ValueExact());";
+    }
+
+    /**
+     * Finds the function of a generated method by its name and native parameter types, or returns
+     * <code>null</code> if none or several match. Payable functions take the value to send as an
+     * extra last parameter.
+     */
+    private static AbiDefinition findFunction(
+            final Map<String, List<AbiDefinition>> functions,
+            final String methodName,
+            final List<String> parameters) {
+
+        AbiDefinition found = null;
+        for (final String prefix : METHOD_PREFIXES) {
+            if (!methodName.startsWith(prefix)) {
+                continue;
+            }
+            final List<AbiDefinition> candidates =
+                    functions.getOrDefault(methodName.substring(prefix.length()), List.of());
+            for (final AbiDefinition function : candidates) {
+                if (matches(function, parameters)) {
+                    if (found != null) {
+                        return null;
+                    }
+                    found = function;
+                }
+            }
+        }
+        return found;
+    }
+
+    private static boolean matches(final AbiDefinition function, final List<String> parameters) {
+        final List<AbiDefinition.NamedType> inputs = function.getInputs();
+        final int extra = PAYABLE.equals(function.getStateMutability()) ? 1 : 0;
+        if (parameters.size() != inputs.size() + extra) {
+            return false;
+        }
+        for (int i = 0; i < inputs.size(); i++) {
+            final String nativeType = ContractAbi.nativeType(inputs.get(i).getType());
+            if (nativeType != null && !nativeType.equals(parameterType(parameters.get(i)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String narrowParameter(final String parameter, final String type) {
+        final String primitiveType = ContractAbi.primitiveType(type);
+        if (primitiveType == null) {
+            return parameter;
+        }
+        final String nativeType = ContractAbi.nativeType(type);
+        final int start = parameter.indexOf(nativeType + " ");
+        return parameter.substring(0, start)
+                + primitiveType
+                + parameter.substring(start + nativeType.length());
+    }
+
+    private static String parameterType(final String parameter) {
+        final String declaration = parameter.trim();
+        return declaration.substring(0, declaration.lastIndexOf(' ')).trim();
+    }
+
+    /** Splits a parameter list on the commas outside of type arguments, keeping the whitespace. */
+    private static List<String> splitParameters(final String parameters) {
+        final List<String> split = new ArrayList<>();
+        if (parameters.isBlank()) {
+            return split;
+        }
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < parameters.length(); i++) {
+            final char c = parameters.charAt(i);
+            if (c == '<') {
+                depth++;
+            } else if (c == '>') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                split.add(parameters.substring(start, i));
+                start = i + 1;
+            }
+        }
+        split.add(parameters.substring(start));
+        return split;
+    }
+
+    /**
+     * Narrows the fields of the event responses, and converts the values assigned to them. Events
+     * sharing their response class name are left unchanged.
+     */
+    private static String narrowEvents(
+            final String source, final ContractAbi abi, final Path wrapperFile)
+            throws IOException {
+
+        final Map<String, AbiDefinition> events = new HashMap<>();
+        for (final AbiDefinition event : abi.getEvents()) {
+            final String responseName = ContractEventsGenerator.responseName(event);
+            events.put(responseName, events.containsKey(responseName) ? null : event);
+        }
+
+        final List<String> lines = new ArrayList<>();
+        Map<String, String> fields = Map.of();
+        Map<String, String> narrowedFields = null;
+        for (final String line : source.split("\n", -1)) {
+            final Matcher responseClass = RESPONSE_CLASS.matcher(line);
+            final Matcher responseInstance = RESPONSE_INSTANCE.matcher(line);
+            final Matcher field = RESPONSE_FIELD.matcher(line);
+            final Matcher assignment = RESPONSE_ASSIGNMENT.matcher(line);
+
+            if (responseClass.matches()) {
+                narrowedFields = primitiveFields(events.get(responseClass.group(1)));
+                lines.add(line);
+            } else if (narrowedFields != null && line.equals("    }")) {
+                if (!narrowedFields.isEmpty()) {
+                    throw new IOException(
+                            "No fields "
+                                    + narrowedFields.keySet()
+                                    + " found in an event response of "
+                                    + wrapperFile);
+                }
+                narrowedFields = null;
+                lines.add(line);
+            } else if (narrowedFields != null && field.matches()) {
+                final String primitiveType = narrowedFields.remove(field.group(4));
+                lines.add(
+                        primitiveType == null
+                                ? line
+                                : field.group(1) + primitiveType + field.group(3));
+            } else if (responseInstance.find()) {
+                fields = primitiveFields(events.get(responseInstance.group(1)));
+                lines.add(line);
+            } else if (assignment.matches() && fields.containsKey(assignment.group(2))) {
+                final String primitiveType = fields.get(assignment.group(2));
+                lines.add(
+                        primitiveType.equals("boolean")
+                                ? line
+                                : assignment.group(1)
+                                        + "((BigInteger) "
+                                        + assignment.group(3)
+                                        + ".getValue())."
+                                        + primitiveType
+                                        + "ValueExact();");
+            } else {
+                lines.add(line);
+            }
+        }
+        return String.join("\n", lines);
+    }
+
+    /** Maps the named elementary parameters of an event to their primitive types. */
+    private static Map<String, String> primitiveFields(final AbiDefinition event) {
+        final Map<String, String> fields = new HashMap<>();
+        if (event == null) {
+            return fields;
+        }
+        for (final AbiDefinition.NamedType input : event.getInputs()) {
+            final String primitiveType = ContractAbi.primitiveType(input.getType());
+            if (primitiveType != null && !input.getName().isEmpty()) {
+                fields.put(input.getName(), primitiveType);
+            }
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,363 @@
+/*
+ * Copyright 2019 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.gradle.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import javax.lang.model.SourceVersion;
+
+import org.web3j.protocol.core.methods.response.AbiDefinition;
+
+/**
+ * Moves the struct classes nested in generated wrappers into a shared package, so a struct used by
+ * many contracts is generated, compiled and loaded once. Structs are identified by their qualified
+ * Solidity name (e.g. <code>Lib.Order</code>), as the code generator does within a contract, and
+ * structs with an ambiguous or invalid name are left nested. Struct classes of any other shape than
+ * the one expected from the code generator fail the generation instead of being left nested.
+ *
+ * <p>Each shared struct class records its Solidity layout, so contracts sharing a struct name with
+ * different components can be detected across the contracts of a task from the generated files,
+ * without parsing their ABIs again.
+ */
+final class SharedStructs {
+
+    private static final String STRUCT_PREFIX = "struct ";
+
+    private static final String TUPLE_TYPE = "tuple";
+
+    private static final String LAYOUT_PREFIX = "/** Solidity struct <code>";
+
+    private static final String LAYOUT_SUFFIX = "</code>. */";
+
+    private static final Pattern STRUCT_CLASS =
+            Pattern.compile(
+                    "^(\\s+)public static class (\\w+) extends (?:Dynamic|Static)Struct \\{$");
+
+    /** Any class extending a struct, to detect struct classes not matching the expected shape. */
+    private static final Pattern STRUCT_DECLARATION =
+            Pattern.compile("\\bclass \\w+ extends (?:Dynamic|Static)Struct\\b");
+
+    private static final String IMPORT = "import ";
+
+    private static final String JAVA_EXTENSION = ".java";
+
+    private SharedStructs() {}
+
+    /**
+     * Extracts the structs of the wrappers generated in a directory into the shared package, as
+     * top-level classes generated in the same directory.
+     */
+    static void extract(final File outputDir, final ContractAbi abi, final String sharedPackage)
+            throws IOException {
+
+        final Map<String, String> structPackages = new HashMap<>();
+        final Map<String, String> structLayouts = new HashMap<>();
+        findStructs(abi, sharedPackage, structPackages, structLayouts);
+        if (structPackages.isEmpty()) {
+            return;
+        }
+        boolean found = false;
+        for (final Path file : WrapperFiles.list(outputDir.toPath())) {
+            if (file.toString().endsWith(JAVA_EXTENSION)) {
+                found |=
+                        extract(
+                                outputDir.toPath(),
+                                outputDir.toPath().resolve(file),
+                                structPackages,
+                                structLayouts);
+            }
+        }
+        if (!found) {
+            throw new IOException(
+                    "No struct classes found in wrappers of " + outputDir + " for structs "
+                            + new TreeSet<>(structPackages.keySet()));
+        }
+    }
+
+    /**
+     * Maps the shared struct classes among generated files, given by their path relative to a
+     * directory, to their recorded Solidity layout, e.g. <code>org.web3j.structs.lib.Order</code>
+     * to <code>Lib.Order(address maker,uint256 amount)</code>.
+     */
+    static Map<String, String> readLayouts(
+            final Path directory, final Collection<String> files, final String sharedPackage)
+            throws IOException {
+        final String prefix = sharedPackage.replace('.', '/') + "/";
+        final Map<String, String> layouts = new TreeMap<>();
+        for (final String file : files) {
+            if (file.startsWith(prefix) && file.endsWith(JAVA_EXTENSION)) {
+                final String layout = readLayout(directory.resolve(file));
+                if (layout != null) {
+                    layouts.put(
+                            file.substring(0, file.length() - JAVA_EXTENSION.length())
+                                    .replace('/', '.'),
+                            layout);
+                }
+            }
+        }
+        return layouts;
+    }
+
+    /**
+     * Reads the Solidity layout recorded in a shared struct class, or <code>null</code> if the
+     * class does not exist or has no layout.
+     */
+    static String readLayout(final Path structFile) throws IOException {
+        if (!Files.isRegularFile(structFile)) {
+            return null;
+        }
+        for (final String line : Files.readAllLines(structFile, StandardCharsets.UTF_8)) {
+            if (line.startsWith(LAYOUT_PREFIX) && line.endsWith(LAYOUT_SUFFIX)) {
+                return line.substring(
+                        LAYOUT_PREFIX.length(), line.length() - LAYOUT_SUFFIX.length());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Extracts the struct classes of a generated file.
+     *
+     * @return whether the file has struct classes, shared or left nested
+     * @throws IOException if a struct class is unknown or not in the expected shape
+     */
+    private static boolean extract(
+            final Path outputDir,
+            final Path wrapperFile,
+            final Map<String, String> structPackages,
+            final Map<String, String> structLayouts)
+            throws IOException {
+
+        final List<String> lines = Files.readAllLines(wrapperFile, StandardCharsets.UTF_8);
+        final TreeSet<String> imports = new TreeSet<>();
+        for (final String line : lines) {
+            if (line.startsWith(IMPORT)) {
+                imports.add(line);
+            }
+        }
+
+        // Structs reference each other, so they are either all shared or all left nested
+        boolean nested = false;
+        boolean found = false;
+        for (final String line : lines) {
+            final Matcher matcher = STRUCT_CLASS.matcher(line);
+            if (matcher.matches()) {
+                final String structPackage = structPackages.get(matcher.group(2));
+                if (structPackage == null) {
+                    throw new IOException(
+                            "Unknown struct class " + matcher.group(2) + " in " + wrapperFile);
+                }
+                nested |= structPackage.isEmpty() || importsSimpleName(imports, matcher.group(2));
+                found = true;
+            } else if (STRUCT_DECLARATION.matcher(line).find()) {
+                throw new IOException("Unexpected struct class in " + wrapperFile + ": " + line);
+            }
+        }
+        if (!found || nested) {
+            return found;
+        }
+
+        final Map<String, String> extracted = new HashMap<>();
+        final Map<String, List<String>> structClasses = new HashMap<>();
+        final List<String> wrapper = new ArrayList<>(lines.size());
+
+        for (int i = 0; i < lines.size(); i++) {
+            final Matcher matcher = STRUCT_CLASS.matcher(lines.get(i));
+            if (!matcher.matches()) {
+                wrapper.add(lines.get(i));
+                continue;
+            }
+
+            final String indent = matcher.group(1);
+            final String structName = matcher.group(2);
+            final String superclass = lines.get(i).substring(matcher.end(2));
+
+            final List<String> structClass = new ArrayList<>();
+            structClass.add("public class " + structName + superclass);
+            while (!lines.get(++i).equals(indent + "}")) {
+                if (i == lines.size() - 1) {
+                    throw new IOException(
+                            "Unterminated struct class " + structName + " in " + wrapperFile);
+                }
+                final String line = lines.get(i);
+                structClass.add(line.startsWith(indent) ? line.substring(indent.length()) : line);
+            }
+            structClass.add("}");
+
+            // Drop the blank line separating the struct from the previous member
+            if (!wrapper.isEmpty() && wrapper.get(wrapper.size() - 1).isEmpty()) {
+                wrapper.remove(wrapper.size() - 1);
+            }
+            extracted.put(structName, structPackages.get(structName));
+            structClasses.put(structName, structClass);
+        }
+
+        final TreeSet<String> structImports = new TreeSet<>();
+        extracted.forEach(
+                (structName, structPackage) ->
+                        structImports.add(IMPORT + structPackage + "." + structName + ";"));
+
+        for (final Map.Entry<String, List<String>> structClass : structClasses.entrySet()) {
+            final String structName = structClass.getKey();
+            final String structPackage = extracted.get(structName);
+
+            // Only referenced imports are kept, so a struct is identical in every wrapper
+            final TreeSet<String> classImports = new TreeSet<>(imports);
+            classImports.addAll(structImports);
+            classImports.remove(IMPORT + structPackage + "." + structName + ";");
+            classImports.removeIf(line -> !isReferenced(line, structClass.getValue()));
+
+            final List<String> source = new ArrayList<>();
+            source.add("package " + structPackage + ";");
+            source.add("");
+            source.addAll(classImports);
+            source.add("");
+            source.add(LAYOUT_PREFIX + structLayouts.get(structName) + LAYOUT_SUFFIX);
+            source.addAll(structClass.getValue());
+
+            final Path structFile =
+                    outputDir
+                            .resolve(structPackage.replace('.', File.separatorChar))
+                            .resolve(structName + JAVA_EXTENSION);
+            Files.createDirectories(structFile.getParent());
+            Files.write(structFile, source, StandardCharsets.UTF_8);
+        }
+
+        imports.addAll(structImports);
+        Files.write(wrapperFile, replaceImports(wrapper, imports), StandardCharsets.UTF_8);
+        return true;
+    }
+
+    /**
+     * Maps the struct class names of a contract to their shared package and to their Solidity
+     * layout.
+     */
+    private static void findStructs(
+            final ContractAbi abi,
+            final String sharedPackage,
+            final Map<String, String> structPackages,
+            final Map<String, String> structLayouts) {
+
+        for (final AbiDefinition definition : abi.getDefinitions()) {
+            collectStructs(definition.getInputs(), sharedPackage, structPackages, structLayouts);
+            collectStructs(definition.getOutputs(), sharedPackage, structPackages, structLayouts);
+        }
+        // Ambiguous or invalid names are mapped to an empty package and left nested
+    }
+
+    private static void collectStructs(
+            final List<AbiDefinition.NamedType> types,
+            final String sharedPackage,
+            final Map<String, String> structPackages,
+            final Map<String, String> structLayouts) {
+
+        if (types == null) {
+            return;
+        }
+        for (final AbiDefinition.NamedType type : types) {
+            final String internalType = type.getInternalType();
+            if (internalType != null && internalType.startsWith(STRUCT_PREFIX)) {
+                String qualifiedName = internalType.substring(STRUCT_PREFIX.length());
+                final int array = qualifiedName.indexOf('[');
+                if (array > 0) {
+                    qualifiedName = qualifiedName.substring(0, array);
+                }
+                final int separator = qualifiedName.lastIndexOf('.');
+                final String structName = qualifiedName.substring(separator + 1);
+                final String structPackage =
+                        separator > 0
+                                ? sharedPackage
+                                        + "."
+                                        + qualifiedName.substring(0, separator).toLowerCase()
+                                : sharedPackage;
+
+                final String existing = structPackages.putIfAbsent(structName, structPackage);
+                if (!SourceVersion.isName(structPackage)
+                        || (existing != null && !existing.equals(structPackage))) {
+                    structPackages.put(structName, "");
+                }
+                structLayouts.put(structName, qualifiedName + layout(type.getComponents()));
+            }
+            collectStructs(type.getComponents(), sharedPackage, structPackages, structLayouts);
+        }
+    }
+
+    /**
+     * Describes the components of a struct with their names, referring to nested structs by their
+     * qualified name, e.g. <code>(address maker,Lib.Item[] items)</code>.
+     */
+    private static String layout(final List<AbiDefinition.NamedType> components) {
+        if (components == null) {
+            return "()";
+        }
+        return components.stream()
+                .map(component -> componentType(component) + " " + component.getName())
+                .collect(Collectors.joining(",", "(", ")"));
+    }
+
+    private static String componentType(final AbiDefinition.NamedType component) {
+        final String type = component.getType();
+        if (!type.startsWith(TUPLE_TYPE)) {
+            return type;
+        }
+        final String internalType = component.getInternalType();
+        if (internalType != null && internalType.startsWith(STRUCT_PREFIX)) {
+            return internalType.substring(STRUCT_PREFIX.length());
+        }
+        // Keep the array dimensions of anonymous tuple arrays, e.g. tuple[2][]
+        return layout(component.getComponents()) + type.substring(TUPLE_TYPE.length());
+    }
+
+    private static boolean isReferenced(final String importLine, final List<String> lines) {
+        final String simpleName =
+                importLine.substring(importLine.lastIndexOf('.') + 1, importLine.length() - 1);
+        final Pattern reference = Pattern.compile("\\b" + Pattern.quote(simpleName) + "\\b");
+        return lines.stream().anyMatch(line -> reference.matcher(line).find());
+    }
+
+    private static boolean importsSimpleName(final TreeSet<String> imports, final String name) {
+        final String suffix = "." + name + ";";
+        return imports.stream().anyMatch(line -> line.endsWith(suffix));
+    }
+
+    private static List<String> replaceImports(
+            final List<String> lines, final TreeSet<String> imports) {
+
+        final List<String> result = new ArrayList<>(lines.size() + imports.size());
+        boolean importsAdded = false;
+        for (final String line : lines) {
+            if (line.startsWith(IMPORT)) {
+                if (!importsAdded) {
+                    result.addAll(imports);
+                    importsAdded = true;
+                }
+            } else {
+                result.add(line);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2019 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.gradle.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiPredicate;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import org.web3j.protocol.ObjectMapperFactory;
+
+/**
+ * Contracts compiled in a solc <code>--standard-json</code> or <code>--combined-json</code> output
+ * file, read in a single streaming pass.
+ */
+class SolcOutput {
+
+    static final String EXTENSION = ".json";
+
+    private static final JsonFactory JSON_FACTORY =
+            ObjectMapperFactory.getObjectMapper().getFactory();
+
+    /** Combined JSON contract keys have the form <code>sourceUnit:ContractName</code>. */
+    private static final Pattern COMBINED_KEY = Pattern.compile(".*:[A-Za-z_$][A-Za-z0-9_$]*");
+
+    /** A contract compiled in a solc output file. */
+    static class Contract {
+
+        private final String sourceUnit;
+        private final String name;
+        private final String abi;
+        private final String bin;
+
+        Contract(final String sourceUnit, final String name, final String abi, final String bin) {
+            this.sourceUnit = sourceUnit;
+            this.name = name;
+            this.abi = abi;
+            this.bin = bin;
+        }
+
+        String getSourceUnit() {
+            return sourceUnit;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        /** Contract ABI as a JSON array. */
+        String getAbi() {
+            return abi;
+        }
+
+        /** Contract bytecode, empty if not compiled. */
+        String getBin() {
+            return bin;
+        }
+    }
+
+    private SolcOutput() {}
+
+    /**
+     * Reads the contracts accepted by a filter given their name and source unit, skipping the
+     * output of any other contract.
+     */
+    static List<Contract> read(final File file, final BiPredicate<String, String> filter)
+            throws IOException {
+        final List<Contract> contracts = new ArrayList<>();
+
+        try (JsonParser parser = JSON_FACTORY.createParser(file)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Solc output is not a JSON object: " + file);
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.getCurrentName();
+                parser.nextToken();
+                if ("contracts".equals(field)) {
+                    readContracts(parser, filter, contracts);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return contracts;
+    }
+
+    private static void readContracts(
+            final JsonParser parser,
+            final BiPredicate<String, String> filter,
+            final List<Contract> contracts)
+            throws IOException {
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String key = parser.getCurrentName();
+            parser.nextToken();
+
+            if (COMBINED_KEY.matcher(key).matches()) {
+                final int separator = key.lastIndexOf(':');
+                readContract(
+                        parser,
+                        key.substring(0, separator),
+                        key.substring(separator + 1),
+                        filter,
+                        contracts);
+            } else {
+                // Standard JSON contracts are grouped by source unit
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    final String name = parser.getCurrentName();
+                    parser.nextToken();
+                    readContract(parser, key, name, filter, contracts);
+                }
+            }
+        }
+    }
+
+    private static void readContract(
+            final JsonParser parser,
+            final String sourceUnit,
+            final String name,
+            final BiPredicate<String, String> filter,
+            final List<Contract> contracts)
+            throws IOException {
+
+        if (!filter.test(name, sourceUnit)) {
+            parser.skipChildren();
+            return;
+        }
+
+        String abi = null;
+        String bin = "";
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = parser.getCurrentName();
+            final JsonToken token = parser.nextToken();
+
+            if ("abi".equals(field)) {
+                // Combined JSON output of solc versions before 0.8 has the ABI as a string
+                abi = token == JsonToken.VALUE_STRING ? parser.getText() : copy(parser);
+            } else if ("bin".equals(field) && token == JsonToken.VALUE_STRING) {
+                bin = parser.getText();
+            } else if ("evm".equals(field) && token == JsonToken.START_OBJECT) {
+                bin = readBytecode(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        // Contracts compiled without ABI output cannot be wrapped
+        if (abi != null) {
+            contracts.add(new Contract(sourceUnit, name, abi, bin));
+        }
+    }
+
+    /** Reads <code>evm.bytecode.object</code> from a standard JSON contract. */
+    private static String readBytecode(final JsonParser parser) throws IOException {
+        String bin = "";
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = parser.getCurrentName();
+            final JsonToken token = parser.nextToken();
+
+            if ("bytecode".equals(field) && token == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    final String bytecodeField = parser.getCurrentName();
+                    if (parser.nextToken() == JsonToken.VALUE_STRING
+                            && "object".equals(bytecodeField)) {
+                        bin = parser.getText();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return bin;
+    }
+
+    private static String copy(final JsonParser parser) throws IOException {
+        final StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            generator.copyCurrentStructure(parser);
+        }
+        return writer.toString();
+    }
+}
@@ -12,11 +12,15 @@
  */
 package org.web3j.gradle.plugin;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 import org.gradle.api.Project;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.MapProperty;
+import org.gradle.api.provider.Property;
 
 import org.web3j.abi.datatypes.Address;
 
@@ -28,99 +32,322 @@ public class Web3jExtension {
 
     private static final String DEFAULT_GENERATED_PACKAGE = "org.web3j.{0}";
 
+    /** Default ABI size in bytes above which a contract is large in low-memory mode. */
+    static final int DEFAULT_LOW_MEMORY_ABI_SIZE = 1024 * 1024;
+
     /**
      * Generated package name for web3j contract wrappers. Accepts a {@link java.text.MessageFormat}
      * string with a unique parameter (i.e. {0} ), formatted as the contract name in lower case.
      */
-    private String generatedPackageName;
+    private final Property<String> generatedPackageName;
+
+    /**
+     * Package templates by contract name or path pattern, taking preference over the generated
+     * package name. Accepts the contract name ({0}) and its source directory ({1}) as parameters.
+     */
+    private final MapProperty<String, String> packageMappings;
 
     /** Base directory for generated Java files. */
-    private String generatedFilesBaseDir;
+    private final Property<String> generatedFilesBaseDir;
 
     /** Generate smart contract wrappers using native Java types. */
-    private Boolean useNativeJavaTypes;
+    private final Property<Boolean> useNativeJavaTypes;
+
+    /** Generate native wrappers using Java primitive types for integers and booleans. */
+    private final Property<Boolean> primitiveIntegers;
+
+    private final Property<Boolean> generateBoth;
 
-    private Boolean generateBoth;
+    /** Excluded contract name or path patterns from wrapper generation. */
+    private final ListProperty<String> excludedContracts;
 
-    /** Excluded contract names from wrapper generation. */
-    private List<String> excludedContracts;
+    /** Included contract name or path patterns from wrapper generation. */
+    private final ListProperty<String> includedContracts;
 
-    /** Included contract names from wrapper generation. */
-    private List<String> includedContracts;
+    /** Contract name or path patterns generated without bytecode and deployment methods. */
+    private final ListProperty<String> abiOnlyContracts;
+
+    /** Package of the structs shared between wrappers, nested in each wrapper if not set. */
+    private final Property<String> sharedStructsPackage;
+
+    /** Generate codecs encoding function calls without the reflective ABI encoder. */
+    private final Property<Boolean> generateCodecs;
+
+    /** Generate dispatchers decoding logs by their precomputed event topic. */
+    private final Property<Boolean> generateEventDispatchers;
+
+    /** Generate readers sending view function calls in a single JSON-RPC batch. */
+    private final Property<Boolean> generateBatchReaders;
+
+    /** Load contract bytecode lazily from compressed resources instead of string constants. */
+    private final Property<Boolean> bytecodeResources;
 
     /** Bit length for network addresses. */
-    private int addressBitLength;
+    private final Property<Integer> addressBitLength;
+
+    /** Number of contracts generated by each worker action. */
+    private final Property<Integer> workerBatchSize;
 
-    public String getGeneratedPackageName() {
+    /** Isolation mode of the workers generating the wrappers. */
+    private final Property<WorkerIsolation> workerIsolation;
+
+    /** Maximum number of worker actions submitted per task, unbounded if not set. */
+    private final Property<Integer> workerMaxParallelism;
+
+    /** Maximum heap size of forked workers, only used with process isolation. */
+    private final Property<String> workerMaxHeapSize;
+
+    /** Directory caching generated wrappers per contract, disabled if not set. */
+    private final Property<String> generationCacheDir;
+
+    /** Reduce the memory used generating large contracts, at the cost of generation time. */
+    private final Property<Boolean> lowMemoryGeneration;
+
+    /** ABI size in bytes above which contracts are generated one at a time in low-memory mode. */
+    private final Property<Integer> lowMemoryAbiSize;
+
+    /** Compile the wrappers in a separate task instead of with the source set sources. */
+    private final Property<Boolean> separateCompilation;
+
+    /** Generate wrappers from solc JSON output files instead of .bin and .abi files. */
+    private final Property<Boolean> solcJsonOutput;
+
+    public Property<String> getGeneratedPackageName() {
         return generatedPackageName;
     }
 
     public void setGeneratedPackageName(final String generatedPackageName) {
         Objects.requireNonNull(generatedPackageName);
-        this.generatedPackageName = generatedPackageName;
+        this.generatedPackageName.set(generatedPackageName);
     }
 
-    public String getGeneratedFilesBaseDir() {
+    public MapProperty<String, String> getPackageMappings() {
+        return packageMappings;
+    }
+
+    public void setPackageMappings(final Map<String, String> packageMappings) {
+        this.packageMappings.set(packageMappings);
+    }
+
+    public Property<String> getGeneratedFilesBaseDir() {
         return generatedFilesBaseDir;
     }
 
     public void setGeneratedFilesBaseDir(final String generatedFilesBaseDir) {
         Objects.requireNonNull(generatedFilesBaseDir);
-        this.generatedFilesBaseDir = generatedFilesBaseDir;
+        this.generatedFilesBaseDir.set(generatedFilesBaseDir);
     }
 
-    public Boolean getUseNativeJavaTypes() {
+    public Property<Boolean> getUseNativeJavaTypes() {
         return useNativeJavaTypes;
     }
 
     public void setUseNativeJavaTypes(final Boolean useNativeJavaTypes) {
-        this.useNativeJavaTypes = useNativeJavaTypes;
+        this.useNativeJavaTypes.set(useNativeJavaTypes);
+    }
+
+    public Property<Boolean> getPrimitiveIntegers() {
+        return primitiveIntegers;
     }
 
-    public Boolean getGenerateBoth() {
+    public void setPrimitiveIntegers(final Boolean primitiveIntegers) {
+        this.primitiveIntegers.set(primitiveIntegers);
+    }
+
+    public Property<Boolean> getGenerateBoth() {
         return generateBoth;
     }
 
     public void setGenerateBoth(Boolean generateBoth) {
-        this.generateBoth = generateBoth;
+        this.generateBoth.set(generateBoth);
     }
 
-    public List<String> getExcludedContracts() {
+    public ListProperty<String> getExcludedContracts() {
         return excludedContracts;
     }
 
     public void setExcludedContracts(final List<String> excludedContracts) {
-        this.excludedContracts = excludedContracts;
+        this.excludedContracts.set(excludedContracts);
     }
 
-    public List<String> getIncludedContracts() {
+    public ListProperty<String> getIncludedContracts() {
         return includedContracts;
     }
 
     public void setIncludedContracts(final List<String> includedContracts) {
-        this.includedContracts = includedContracts;
+        this.includedContracts.set(includedContracts);
+    }
+
+    public ListProperty<String> getAbiOnlyContracts() {
+        return abiOnlyContracts;
+    }
+
+    public void setAbiOnlyContracts(final List<String> abiOnlyContracts) {
+        this.abiOnlyContracts.set(abiOnlyContracts);
+    }
+
+    public Property<String> getSharedStructsPackage() {
+        return sharedStructsPackage;
     }
 
-    public int getAddressBitLength() {
+    public void setSharedStructsPackage(final String sharedStructsPackage) {
+        this.sharedStructsPackage.set(sharedStructsPackage);
+    }
+
+    public Property<Boolean> getGenerateCodecs() {
+        return generateCodecs;
+    }
+
+    public void setGenerateCodecs(final Boolean generateCodecs) {
+        this.generateCodecs.set(generateCodecs);
+    }
+
+    public Property<Boolean> getGenerateEventDispatchers() {
+        return generateEventDispatchers;
+    }
+
+    public void setGenerateEventDispatchers(final Boolean generateEventDispatchers) {
+        this.generateEventDispatchers.set(generateEventDispatchers);
+    }
+
+    public Property<Boolean> getGenerateBatchReaders() {
+        return generateBatchReaders;
+    }
+
+    public void setGenerateBatchReaders(final Boolean generateBatchReaders) {
+        this.generateBatchReaders.set(generateBatchReaders);
+    }
+
+    public Property<Boolean> getBytecodeResources() {
+        return bytecodeResources;
+    }
+
+    public void setBytecodeResources(final Boolean bytecodeResources) {
+        this.bytecodeResources.set(bytecodeResources);
+    }
+
+    public Property<Integer> getAddressBitLength() {
         return addressBitLength;
     }
 
     public void setAddressBitLength(final int addressBitLength) {
-        this.addressBitLength = addressBitLength;
+        this.addressBitLength.set(addressBitLength);
+    }
+
+    public Property<Integer> getWorkerBatchSize() {
+        return workerBatchSize;
+    }
+
+    public void setWorkerBatchSize(final int workerBatchSize) {
+        this.workerBatchSize.set(workerBatchSize);
+    }
+
+    public Property<WorkerIsolation> getWorkerIsolation() {
+        return workerIsolation;
+    }
+
+    public void setWorkerIsolation(final WorkerIsolation workerIsolation) {
+        Objects.requireNonNull(workerIsolation);
+        this.workerIsolation.set(workerIsolation);
+    }
+
+    public Property<Integer> getWorkerMaxParallelism() {
+        return workerMaxParallelism;
+    }
+
+    public void setWorkerMaxParallelism(final Integer workerMaxParallelism) {
+        this.workerMaxParallelism.set(workerMaxParallelism);
+    }
+
+    public Property<String> getWorkerMaxHeapSize() {
+        return workerMaxHeapSize;
+    }
+
+    public void setWorkerMaxHeapSize(final String workerMaxHeapSize) {
+        this.workerMaxHeapSize.set(workerMaxHeapSize);
+    }
+
+    public Property<String> getGenerationCacheDir() {
+        return generationCacheDir;
+    }
+
+    public void setGenerationCacheDir(final String generationCacheDir) {
+        this.generationCacheDir.set(generationCacheDir);
+    }
+
+    public Property<Boolean> getLowMemoryGeneration() {
+        return lowMemoryGeneration;
+    }
+
+    public void setLowMemoryGeneration(final Boolean lowMemoryGeneration) {
+        this.lowMemoryGeneration.set(lowMemoryGeneration);
+    }
+
+    public Property<Integer> getLowMemoryAbiSize() {
+        return lowMemoryAbiSize;
+    }
+
+    public void setLowMemoryAbiSize(final Integer lowMemoryAbiSize) {
+        this.lowMemoryAbiSize.set(lowMemoryAbiSize);
+    }
+
+    public Property<Boolean> getSeparateCompilation() {
+        return separateCompilation;
+    }
+
+    public void setSeparateCompilation(final Boolean separateCompilation) {
+        this.separateCompilation.set(separateCompilation);
+    }
+
+    public Property<Boolean> getSolcJsonOutput() {
+        return solcJsonOutput;
+    }
+
+    public void setSolcJsonOutput(final Boolean solcJsonOutput) {
+        this.solcJsonOutput.set(solcJsonOutput);
     }
 
     public Web3jExtension(final Project project) {
+        final ObjectFactory objects = project.getObjects();
+
         generatedFilesBaseDir =
-                project.getBuildDir().getAbsolutePath() + "/generated/sources/" + NAME;
+                objects.property(String.class)
+                        .convention(
+                                project.getLayout()
+                                        .getBuildDirectory()
+                                        .dir("generated/sources/" + NAME)
+                                        .map(dir -> dir.getAsFile().getAbsolutePath()));
 
-        // Use the project's group name in generated package
-        generatedPackageName = getDefaultGeneratedPackageName(project);
+        // Use the project's group name in generated package, resolved once configured
+        generatedPackageName =
+                objects.property(String.class)
+                        .convention(
+                                project.provider(() -> getDefaultGeneratedPackageName(project)));
 
-        useNativeJavaTypes = true;
-        excludedContracts = new ArrayList<>();
-        includedContracts = new ArrayList<>();
-        addressBitLength = Address.DEFAULT_LENGTH / Byte.SIZE;
-        generateBoth = false;
+        packageMappings = objects.mapProperty(String.class, String.class).empty();
+        useNativeJavaTypes = objects.property(Boolean.class).convention(true);
+        primitiveIntegers = objects.property(Boolean.class).convention(false);
+        excludedContracts = objects.listProperty(String.class).empty();
+        includedContracts = objects.listProperty(String.class).empty();
+        abiOnlyContracts = objects.listProperty(String.class).empty();
+        sharedStructsPackage = objects.property(String.class);
+        generateCodecs = objects.property(Boolean.class).convention(false);
+        generateEventDispatchers = objects.property(Boolean.class).convention(false);
+        generateBatchReaders = objects.property(Boolean.class).convention(false);
+        bytecodeResources = objects.property(Boolean.class).convention(false);
+        addressBitLength =
+                objects.property(Integer.class).convention(Address.DEFAULT_LENGTH / Byte.SIZE);
+        generateBoth = objects.property(Boolean.class).convention(false);
+        workerBatchSize = objects.property(Integer.class).convention(1);
+        workerIsolation =
+                objects.property(WorkerIsolation.class).convention(WorkerIsolation.NONE);
+        workerMaxParallelism = objects.property(Integer.class);
+        workerMaxHeapSize = objects.property(String.class);
+        generationCacheDir = objects.property(String.class);
+        lowMemoryGeneration = objects.property(Boolean.class).convention(false);
+        lowMemoryAbiSize = objects.property(Integer.class).convention(DEFAULT_LOW_MEMORY_ABI_SIZE);
+        solcJsonOutput = objects.property(Boolean.class).convention(false);
+        separateCompilation = objects.property(Boolean.class).convention(false);
     }
 
     protected String getDefaultGeneratedPackageName(Project project) {
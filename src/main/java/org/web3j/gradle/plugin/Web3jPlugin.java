@@ -16,23 +16,27 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.Callable;
 
-import org.codehaus.groovy.runtime.InvokerHelper;
+import org.gradle.api.GradleException;
 import org.gradle.api.InvalidUserDataException;
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
-import org.gradle.api.Task;
+import org.gradle.api.file.Directory;
 import org.gradle.api.file.SourceDirectorySet;
 import org.gradle.api.internal.plugins.PluginApplicationException;
-import org.gradle.api.plugins.Convention;
 import org.gradle.api.plugins.JavaPlugin;
-import org.gradle.api.plugins.JavaPluginConvention;
+import org.gradle.api.plugins.JavaPluginExtension;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.reporting.ReportingExtension;
 import org.gradle.api.tasks.SourceSet;
 import org.gradle.api.tasks.SourceSetContainer;
-import org.gradle.api.tasks.SourceTask;
 import org.gradle.api.tasks.TaskProvider;
+import org.gradle.api.tasks.compile.JavaCompile;
 import org.gradle.internal.Describables;
+import org.gradle.language.jvm.tasks.ProcessResources;
 
 import org.web3j.solidity.gradle.plugin.SolidityCompile;
 import org.web3j.solidity.gradle.plugin.SolidityPlugin;
@@ -50,9 +54,9 @@ public class Web3jPlugin implements Plugin<Project> {
         registerExtensions(target);
 
         final SourceSetContainer sourceSets =
-                target.getConvention().getPlugin(JavaPluginConvention.class).getSourceSets();
+                target.getExtensions().getByType(JavaPluginExtension.class).getSourceSets();
 
-        target.afterEvaluate(p -> sourceSets.all(sourceSet -> configure(target, sourceSet)));
+        sourceSets.all(sourceSet -> configure(target, sourceSet));
     }
 
     protected void registerExtensions(Project project) {
@@ -89,13 +93,10 @@ public class Web3jPlugin implements Plugin<Project> {
      */
     private void configure(final Project project, final SourceSet sourceSet) {
 
-        final Web3jExtension extension =
-                (Web3jExtension) InvokerHelper.getProperty(project, Web3jExtension.NAME);
+        final Web3jExtension extension = project.getExtensions().getByType(Web3jExtension.class);
 
-        final File outputDir = buildSourceDir(extension, sourceSet);
-
-        // Add source set to the project Java source sets
-        sourceSet.getJava().srcDir(outputDir);
+        final Directory projectDir = project.getLayout().getProjectDirectory();
+        final Provider<Directory> outputDir = buildSourceDir(project, extension, sourceSet);
 
         final String srcSetName =
                 sourceSet.getName().equals("main")
@@ -117,22 +118,89 @@ public class Web3jPlugin implements Plugin<Project> {
                                                     + sourceSet.getName()
                                                     + " Java contract wrappers from Solidity ABIs.");
 
-                                    // Set the task output directory
-                                    task.getOutputs().dir(outputDir);
+                                    // Set the task output directory and manifest
+                                    task.getOutputDirectory().set(outputDir);
+                                    task.getManifestFile()
+                                            .set(
+                                                    project.getLayout()
+                                                            .getBuildDirectory()
+                                                            .file(
+                                                                    Web3jExtension.NAME
+                                                                            + "/"
+                                                                            + generateTaskName
+                                                                            + ".manifest"));
+
+                                    // Set the generation timing reports directory
+                                    task.getReportsDirectory()
+                                            .set(
+                                                    project.getExtensions()
+                                                            .getByType(ReportingExtension.class)
+                                                            .getBaseDirectory()
+                                                            .dir(Web3jExtension.NAME));
 
                                     // Set the task generated package name, classpath and group
-                                    task.setGeneratedJavaPackageName(
-                                            extension.getGeneratedPackageName());
-                                    task.setUseNativeJavaTypes(extension.getUseNativeJavaTypes());
-                                    task.setGenerateBoth(extension.getGenerateBoth());
+                                    task.getGeneratedJavaPackageName()
+                                            .set(extension.getGeneratedPackageName());
+                                    task.getPackageMappings()
+                                            .set(extension.getPackageMappings());
+                                    task.getUseNativeJavaTypes()
+                                            .set(extension.getUseNativeJavaTypes());
+                                    task.getPrimitiveIntegers()
+                                            .set(extension.getPrimitiveIntegers());
+                                    task.getGenerateBoth().set(extension.getGenerateBoth());
                                     task.setGroup(Web3jExtension.NAME);
 
                                     // Set task excluded contracts
-                                    task.setExcludedContracts(extension.getExcludedContracts());
-                                    task.setIncludedContracts(extension.getIncludedContracts());
+                                    task.getExcludedContracts()
+                                            .set(extension.getExcludedContracts());
+                                    task.getIncludedContracts()
+                                            .set(extension.getIncludedContracts());
+                                    task.getAbiOnlyContracts()
+                                            .set(extension.getAbiOnlyContracts());
+
+                                    // Set the package of structs shared between contracts
+                                    task.getSharedStructsPackage()
+                                            .set(extension.getSharedStructsPackage());
+
+                                    // Set the generation of codecs, dispatchers and readers
+                                    task.getGenerateCodecs().set(extension.getGenerateCodecs());
+                                    task.getGenerateEventDispatchers()
+                                            .set(extension.getGenerateEventDispatchers());
+                                    task.getGenerateBatchReaders()
+                                            .set(extension.getGenerateBatchReaders());
+
+                                    // Set the contract bytecode generation as resources
+                                    task.getBytecodeResources()
+                                            .set(extension.getBytecodeResources());
 
                                     // Set the contract addresses length (default 160)
-                                    task.setAddressLength(extension.getAddressBitLength());
+                                    task.getAddressLength().set(extension.getAddressBitLength());
+
+                                    // Set the number of contracts per worker action
+                                    task.getWorkerBatchSize().set(extension.getWorkerBatchSize());
+
+                                    // Set the worker isolation and resources
+                                    task.getWorkerIsolation().set(extension.getWorkerIsolation());
+                                    task.getWorkerMaxParallelism()
+                                            .set(extension.getWorkerMaxParallelism());
+                                    task.getWorkerMaxHeapSize()
+                                            .set(extension.getWorkerMaxHeapSize());
+
+                                    // Set the per-contract generation cache, if enabled
+                                    task.getGenerationCacheDir()
+                                            .set(
+                                                    extension
+                                                            .getGenerationCacheDir()
+                                                            .map(projectDir::dir));
+
+                                    // Set the low-memory generation mode for large contracts
+                                    task.getLowMemoryGeneration()
+                                            .set(extension.getLowMemoryGeneration());
+                                    task.getLowMemoryAbiSize()
+                                            .set(extension.getLowMemoryAbiSize());
+
+                                    // Set the source files format, solc JSON or .bin/.abi
+                                    task.getSolcJsonOutput().set(extension.getSolcJsonOutput());
 
                                     task.dependsOn(
                                             project.getTasks()
@@ -140,51 +208,116 @@ public class Web3jPlugin implements Plugin<Project> {
                                                     .named("compile" + srcSetName + "Solidity"));
                                 });
 
-        final TaskProvider<Task> compileJava =
-                project.getTasks().named("compile" + srcSetName + "Java");
+        final Provider<Directory> generatedDir =
+                taskProvider.flatMap(GenerateContractWrappers::getOutputDirectory);
+
+        final String compileClasspath = sourceSet.getCompileClasspathConfigurationName();
+        final String classesDir = "classes/" + Web3jExtension.NAME + "/" + sourceSet.getName();
+
+        final TaskProvider<JavaCompile> compileProvider =
+                project.getTasks()
+                        .register(
+                                "compile" + srcSetName + "ContractWrappers",
+                                JavaCompile.class,
+                                task -> {
+                                    task.setDescription(
+                                            "Compiles "
+                                                    + sourceSet.getName()
+                                                    + " Java contract wrappers separately.");
+                                    task.setGroup(Web3jExtension.NAME);
+                                    task.setSource(generatedDir);
+                                    task.include("**/*.java");
+                                    task.setClasspath(
+                                            project.getConfigurations()
+                                                    .getByName(compileClasspath));
+                                    task.getDestinationDirectory()
+                                            .set(
+                                                    project.getLayout()
+                                                            .getBuildDirectory()
+                                                            .dir(classesDir));
+                                });
 
-        compileJava.configure(
-                task -> {
-                    ((SourceTask) task)
-                            .source(taskProvider.get().getOutputs().getFiles().getSingleFile());
-                    task.dependsOn(taskProvider);
-                });
+        // Add either the wrappers sources or their separately compiled classes to the source set,
+        // carrying the task dependencies without realizing the tasks unless in the task graph
+        final Provider<Boolean> separateCompilation = extension.getSeparateCompilation();
+
+        sourceSet
+                .getJava()
+                .srcDir(
+                        (Callable<Object>)
+                                () -> separateCompilation.get() ? List.of() : generatedDir);
+
+        final Callable<Object> wrapperClasses =
+                () ->
+                        separateCompilation.get()
+                                ? compileProvider.flatMap(JavaCompile::getDestinationDirectory)
+                                : List.of();
+
+        sourceSet.setCompileClasspath(
+                project.files(wrapperClasses, sourceSet.getCompileClasspath()));
+        sourceSet.getOutput().dir(wrapperClasses);
+
+        // Package the contract bytecode resources generated next to the wrappers, if enabled
+        final Provider<Boolean> bytecodeResources = extension.getBytecodeResources();
+        final Callable<Object> wrapperResources =
+                () -> bytecodeResources.get() ? generatedDir : List.of();
+        final String resourcePattern = "**/*" + BytecodeResources.EXTENSION;
+
+        project.getTasks()
+                .named(
+                        sourceSet.getProcessResourcesTaskName(),
+                        ProcessResources.class,
+                        task -> task.from(wrapperResources, spec -> spec.include(resourcePattern)));
     }
 
     protected SourceDirectorySet buildSourceDirectorySet(
             Project project, final SourceSet sourceSet) {
 
-        final String displayName = capitalize((CharSequence) sourceSet.getName()) + " Solidity BIN";
+        final String displayName =
+                capitalize((CharSequence) sourceSet.getName()) + " Solidity BIN and ABI";
 
         final SourceDirectorySet directorySet =
                 project.getObjects().sourceDirectorySet(sourceSet.getName(), displayName);
 
         directorySet.srcDir(buildOutputDir(sourceSet));
-        directorySet.include("**/*.bin");
+        directorySet.include("**/*.bin", "**/*.abi", "**/*" + SolcOutput.EXTENSION);
         return directorySet;
     }
 
-    private File buildSourceDir(final Web3jExtension extension, final SourceSet sourceSet) {
-
-        if (extension.getGeneratedFilesBaseDir().isEmpty()) {
-            throw new InvalidUserDataException("Generated web3j package cannot be empty");
-        }
-
-        return new File(
-                extension.getGeneratedFilesBaseDir()
-                        + File.separator
-                        + sourceSet.getName()
-                        + File.separator
-                        + "java");
+    private Provider<Directory> buildSourceDir(
+            final Project project, final Web3jExtension extension, final SourceSet sourceSet) {
+
+        final Directory projectDir = project.getLayout().getProjectDirectory();
+        final String sourceSetName = sourceSet.getName();
+
+        return extension
+                .getGeneratedFilesBaseDir()
+                .map(
+                        baseDir -> {
+                            if (baseDir.isEmpty()) {
+                                throw new InvalidUserDataException(
+                                        "Generated web3j package cannot be empty");
+                            }
+                            return projectDir.dir(
+                                    baseDir
+                                            + File.separator
+                                            + sourceSetName
+                                            + File.separator
+                                            + "java");
+                        });
     }
 
-    protected File buildOutputDir(final SourceSet sourceSet) {
-        final Convention convention =
-                (Convention) InvokerHelper.getProperty(sourceSet, "convention");
-
+    protected Provider<Directory> buildOutputDir(final SourceSet sourceSet) {
         final SoliditySourceSet soliditySourceSet =
-                (SoliditySourceSet) convention.getPlugins().get(SoliditySourceSet.NAME);
+                sourceSet.getExtensions().findByType(SoliditySourceSet.class);
+
+        if (soliditySourceSet == null) {
+            throw new GradleException(
+                    "No Solidity source set extension found on source set "
+                            + sourceSet.getName()
+                            + ", check the org.web3j.solidity plugin version");
+        }
 
-        return soliditySourceSet.getSolidity().getDestinationDirectory().getAsFile().get();
+        return soliditySourceSet.getSolidity().getDestinationDirectory();
     }
 }
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2019 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.gradle.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/** File system helpers to move generated wrappers between directories. */
+final class WrapperFiles {
+
+    private WrapperFiles() {}
+
+    /** Lists the regular files under a directory, relative to it. */
+    static List<Path> list(final Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile)
+                    .map(directory::relativize)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /** Lists the regular files under a directory as relative paths using '/' separators. */
+    static List<String> listPaths(final Path directory) throws IOException {
+        return list(directory).stream()
+                .map(file -> file.toString().replace(File.separatorChar, '/'))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Deletes files under a directory given their relative paths, and any parent directory left
+     * empty.
+     */
+    static void deleteAll(final Path directory, final Collection<String> paths)
+            throws IOException {
+        for (final String path : paths) {
+            Path file = directory.resolve(path);
+            Files.deleteIfExists(file);
+
+            file = file.getParent();
+            while (file != null && file.startsWith(directory) && !file.equals(directory)) {
+                try (Stream<Path> entries = Files.list(file)) {
+                    if (entries.findAny().isPresent()) {
+                        break;
+                    }
+                }
+                Files.delete(file);
+                file = file.getParent();
+            }
+        }
+    }
+
+    /** Copies the regular files under a directory into another, replacing existing ones. */
+    static void copy(final Path source, final Path target) throws IOException {
+        for (final Path file : list(source)) {
+            final Path targetFile = target.resolve(file.toString());
+            Files.createDirectories(targetFile.getParent());
+            Files.copy(source.resolve(file), targetFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Copies the regular files under a directory into another, leaving untouched the existing
+     * files with identical content so their modification times are preserved.
+     *
+     * @return the number of bytes written
+     */
+    static long publish(final Path source, final Path target) throws IOException {
+        long bytesWritten = 0;
+        for (final Path file : list(source)) {
+            final Path sourceFile = source.resolve(file);
+            final Path targetFile = target.resolve(file.toString());
+
+            if (!Files.isRegularFile(targetFile)
+                    || Files.size(targetFile) != Files.size(sourceFile)
+                    || Files.mismatch(sourceFile, targetFile) != -1L) {
+                // Shared files may be published concurrently by several workers
+                final Path tempFile =
+                        targetFile.resolveSibling(
+                                targetFile.getFileName() + "." + UUID.randomUUID() + ".tmp");
+                Files.createDirectories(targetFile.getParent());
+                Files.copy(sourceFile, tempFile);
+                Files.move(
+                        tempFile,
+                        targetFile,
+                        StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+                bytesWritten += Files.size(sourceFile);
+            }
+        }
+        return bytesWritten;
+    }
+
+    /** Deletes a directory recursively, if it exists. */
+    static void delete(final Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (final Path file :
+                    files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+    }
+}
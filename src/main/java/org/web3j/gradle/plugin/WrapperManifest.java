@@ -0,0 +1,106 @@
+/*
+ * Copyright 2019 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.gradle.plugin;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Index of the files generated for each contract, relative to the output directory. Each line has
+ * the form <code>contractId=file1,file2</code>, sorted by contract for reproducible outputs.
+ */
+class WrapperManifest {
+
+    private static final String SEPARATOR = ",";
+
+    private final Map<String, List<String>> files = new TreeMap<>();
+
+    static WrapperManifest load(final Path manifestFile) throws IOException {
+        final WrapperManifest manifest = new WrapperManifest();
+        if (Files.isRegularFile(manifestFile)) {
+            for (final String line : Files.readAllLines(manifestFile, StandardCharsets.UTF_8)) {
+                final int separator = line.indexOf('=');
+                if (separator > 0) {
+                    final String value = line.substring(separator + 1);
+                    manifest.put(
+                            line.substring(0, separator),
+                            value.isEmpty()
+                                    ? new ArrayList<>()
+                                    : Arrays.asList(value.split(SEPARATOR)));
+                }
+            }
+        }
+        return manifest;
+    }
+
+    void store(final Path manifestFile) throws IOException {
+        final List<String> lines = new ArrayList<>(files.size());
+        files.forEach(
+                (contractId, paths) ->
+                        lines.add(contractId + "=" + String.join(SEPARATOR, paths)));
+        Files.createDirectories(manifestFile.getParent());
+        Files.write(manifestFile, lines, StandardCharsets.UTF_8);
+    }
+
+    void put(final String contractId, final List<String> contractFiles) {
+        files.put(contractId, contractFiles);
+    }
+
+    /** Removes a contract, returning the files previously generated for it. */
+    List<String> remove(final String contractId) {
+        final List<String> removed = files.remove(contractId);
+        return removed == null ? new ArrayList<>() : removed;
+    }
+
+    /** Removes every contract with an id starting with a prefix, returning their files. */
+    List<String> removeWithPrefix(final String prefix) {
+        final List<String> removed = new ArrayList<>();
+        final Iterator<Map.Entry<String, List<String>>> entries = files.entrySet().iterator();
+        while (entries.hasNext()) {
+            final Map.Entry<String, List<String>> entry = entries.next();
+            if (entry.getKey().startsWith(prefix)) {
+                removed.addAll(entry.getValue());
+                entries.remove();
+            }
+        }
+        return removed;
+    }
+
+    /** Removes every contract, returning their files. */
+    Set<String> removeAll() {
+        final Set<String> removed = getFiles();
+        files.clear();
+        return removed;
+    }
+
+    void putAll(final WrapperManifest manifest) {
+        files.putAll(manifest.files);
+    }
+
+    /** All the files generated for any contract. */
+    Set<String> getFiles() {
+        final Set<String> allFiles = new HashSet<>();
+        files.values().forEach(allFiles::addAll);
+        return allFiles;
+    }
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright 2019 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.gradle.plugin;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.GradleRunner;
+import org.gradle.testkit.runner.TaskOutcome;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import static org.gradle.testkit.runner.TaskOutcome.FROM_CACHE;
+import static org.gradle.testkit.runner.TaskOutcome.SUCCESS;
+import static org.gradle.testkit.runner.TaskOutcome.UP_TO_DATE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Measures the plugin build performance on synthetic projects with a configurable number of
+ * contracts, spread across several source sets.
+ *
+ * <p>The contract ABIs and binaries are written directly to the Solidity output directories, so
+ * no Solidity compiler is needed, and builds run offline against a local stand-in repository.
+ * Results are appended as CSV to the report directory.
+ */
+public class Web3jPluginPerformanceTest {
+
+    private static final List<String> SOURCE_SETS = Arrays.asList("main", "test", "integration");
+
+    private static final List<String> TASKS =
+            Arrays.asList(
+                    ":generateContractWrappers",
+                    ":generateTestContractWrappers",
+                    ":generateIntegrationContractWrappers");
+
+    private static final Pattern HEAP_USED = Pattern.compile("HEAP_USED=(\\d+)");
+
+    private static final String BIN =
+            "0x6080604052348015600f57600080fd5b50" + "603f80601d6000396000f3fe";
+
+    static Stream<Integer> contractCounts() {
+        return Arrays.stream(System.getProperty("web3j.performance.contracts", "100").split(","))
+                .map(String::trim)
+                .map(Integer::valueOf);
+    }
+
+    @ParameterizedTest(name = "{0} contracts")
+    @MethodSource("contractCounts")
+    public void buildScenarios(final int contracts) throws IOException {
+        final Path projectDir = Files.createTempDirectory("web3jPerformance");
+        createProject(projectDir, contracts);
+
+        // Cold build, nothing generated nor cached
+        measure(projectDir, contracts, "cold", SUCCESS, "--build-cache");
+
+        // No-op build, every task is up-to-date
+        measure(projectDir, contracts, "no-op", UP_TO_DATE, "--build-cache");
+
+        // Single contract change in the main source set
+        final Path changed = projectDir.resolve("abis/main/Contract0.abi");
+        Files.write(changed, abi("Contract0", 1).getBytes(StandardCharsets.UTF_8));
+        final Measurement change = run(projectDir, TASKS.get(0).substring(1), "--build-cache");
+        assertEquals(SUCCESS, change.result.task(TASKS.get(0)).getOutcome());
+        record(contracts, "single-change", change);
+
+        // Build cache hit after a clean build
+        run(projectDir, "clean");
+        measure(projectDir, contracts, "build-cache-hit", FROM_CACHE, "--build-cache");
+    }
+
+    private void measure(
+            final Path projectDir,
+            final int contracts,
+            final String scenario,
+            final TaskOutcome expected,
+            final String... arguments)
+            throws IOException {
+
+        final String[] tasks =
+                TASKS.stream().map(task -> task.substring(1)).toArray(String[]::new);
+        final String[] allArguments =
+                Stream.concat(Arrays.stream(tasks), Arrays.stream(arguments))
+                        .toArray(String[]::new);
+
+        final Measurement measurement = run(projectDir, allArguments);
+        for (final String task : TASKS) {
+            assertNotNull(measurement.result.task(task));
+            assertEquals(expected, measurement.result.task(task).getOutcome());
+        }
+        record(contracts, scenario, measurement);
+    }
+
+    private Measurement run(final Path projectDir, final String... arguments) {
+        final List<String> allArguments =
+                Stream.concat(Arrays.stream(arguments), Stream.of("reportHeap", "--offline"))
+                        .collect(Collectors.toList());
+
+        final long start = System.nanoTime();
+        final BuildResult result =
+                GradleRunner.create()
+                        .withProjectDir(projectDir.toFile())
+                        .withArguments(allArguments)
+                        .withPluginClasspath()
+                        .build();
+        return new Measurement(result, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void record(
+            final int contracts, final String scenario, final Measurement measurement)
+            throws IOException {
+
+        final Matcher heap = HEAP_USED.matcher(measurement.result.getOutput());
+        final String heapUsed = heap.find() ? heap.group(1) : "";
+
+        final Path reportFile =
+                Paths.get(
+                        System.getProperty("web3j.performance.reportDir", "build"),
+                        "web3j-plugin.csv");
+        Files.createDirectories(reportFile.getParent());
+        if (!Files.exists(reportFile)) {
+            Files.write(
+                    reportFile,
+                    "contracts,scenario,wallTimeMillis,heapUsedBytes\n"
+                            .getBytes(StandardCharsets.UTF_8));
+        }
+
+        final String line =
+                contracts
+                        + ","
+                        + scenario
+                        + ","
+                        + measurement.wallTimeMillis
+                        + ","
+                        + heapUsed
+                        + "\n";
+        Files.write(
+                reportFile, line.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        System.out.print(line);
+    }
+
+    private void createProject(final Path projectDir, final int contracts) throws IOException {
+        Files.write(
+                projectDir.resolve("settings.gradle"),
+                ("rootProject.name = 'web3j-performance'\n"
+                                + "buildCache {\n"
+                                + "    local {\n"
+                                + "        directory = file('build-cache')\n"
+                                + "    }\n"
+                                + "}\n")
+                        .getBytes(StandardCharsets.UTF_8));
+
+        final StringBuilder buildFile =
+                new StringBuilder()
+                        .append("plugins {\n")
+                        .append("    id 'org.web3j'\n")
+                        .append("}\n")
+                        .append("web3j {\n")
+                        .append("    generatedPackageName = 'org.web3j.performance.{0}'\n")
+                        .append("}\n")
+                        .append("repositories {\n")
+                        .append("    maven { url = uri('local-repo') }\n")
+                        .append("}\n")
+                        .append("sourceSets {\n")
+                        .append("    integration\n")
+                        .append("}\n");
+
+        for (final String sourceSet : SOURCE_SETS) {
+            final String suffix =
+                    sourceSet.equals("main")
+                            ? ""
+                            : Character.toUpperCase(sourceSet.charAt(0)) + sourceSet.substring(1);
+
+            // Use pre-built ABIs and binaries instead of compiling Solidity
+            buildFile
+                    .append("sourceSets.")
+                    .append(sourceSet)
+                    .append(".solidity.destinationDirectory.set(file('abis/")
+                    .append(sourceSet)
+                    .append("'))\n")
+                    .append("tasks.named('compile")
+                    .append(suffix)
+                    .append("Solidity') { enabled = false }\n");
+        }
+
+        buildFile
+                .append("tasks.register('reportHeap') {\n")
+                .append("    doLast {\n")
+                .append("        def runtime = Runtime.getRuntime()\n")
+                .append("        def used = runtime.totalMemory() - runtime.freeMemory()\n")
+                .append("        println \"HEAP_USED=${used}\"\n")
+                .append("    }\n")
+                .append("}\n");
+
+        Files.write(
+                projectDir.resolve("build.gradle"),
+                buildFile.toString().getBytes(StandardCharsets.UTF_8));
+
+        Files.createDirectories(projectDir.resolve("local-repo"));
+
+        for (int i = 0; i < contracts; i++) {
+            final String sourceSet = SOURCE_SETS.get(i % SOURCE_SETS.size());
+            final Path abiDir = projectDir.resolve("abis").resolve(sourceSet);
+            Files.createDirectories(abiDir);
+
+            final String contractName = "Contract" + i;
+            Files.write(
+                    abiDir.resolve(contractName + ".abi"),
+                    abi(contractName, 0).getBytes(StandardCharsets.UTF_8));
+            Files.write(
+                    abiDir.resolve(contractName + ".bin"), BIN.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /** An ERC-20 like ABI, with a number of extra functions to simulate a contract change. */
+    private static String abi(final String contractName, final int extraFunctions) {
+        final StringBuilder abi =
+                new StringBuilder()
+                        .append("[")
+                        .append(function("totalSupply", "", "uint256"))
+                        .append(",")
+                        .append(function("balanceOf", "address", "uint256"))
+                        .append(",")
+                        .append(function("transfer", "address", "bool"))
+                        .append(",")
+                        .append(function("name" + contractName, "", "string"));
+
+        for (int i = 0; i < extraFunctions; i++) {
+            abi.append(",").append(function("extra" + i, "uint256", "bool"));
+        }
+        return abi.append("]").toString();
+    }
+
+    private static String function(
+            final String name, final String inputType, final String outputType) {
+        final String inputs =
+                inputType.isEmpty()
+                        ? "[]"
+                        : "[{\"name\":\"input\",\"type\":\"" + inputType + "\"}]";
+        return "{\"type\":\"function\",\"name\":\""
+                + name
+                + "\",\"stateMutability\":\"view\",\"constant\":true,\"inputs\":"
+                + inputs
+                + ",\"outputs\":[{\"name\":\"\",\"type\":\""
+                + outputType
+                + "\"}]}";
+    }
+
+    private static class Measurement {
+
+        private final BuildResult result;
+        private final long wallTimeMillis;
+
+        private Measurement(final BuildResult result, final long wallTimeMillis) {
+            this.result = result;
+            this.wallTimeMillis = wallTimeMillis;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2019 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.gradle.plugin;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.web3j.crypto.Credentials;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.http.HttpService;
+import org.web3j.tx.Contract;
+import org.web3j.tx.gas.ContractGasProvider;
+import org.web3j.tx.gas.DefaultGasProvider;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BytecodeResourcesTest {
+
+    private static final String BIN = "0x608060405234801561001057600080fd5b50";
+
+    private static final String ADDRESS = "0x00000000000000000000000000000000000000cc";
+
+    private static final List<String> WRAPPER =
+            List.of(
+                    "package org.web3j.test;",
+                    "",
+                    "import java.util.List;",
+                    "import org.web3j.crypto.Credentials;",
+                    "import org.web3j.protocol.Web3j;",
+                    "import org.web3j.protocol.core.RemoteCall;",
+                    "import org.web3j.tx.Contract;",
+                    "import org.web3j.tx.gas.ContractGasProvider;",
+                    "",
+                    "/**",
+                    " * <p>The BINARY field holds the contract bytecode.",
+                    " */",
+                    "public class Token extends Contract {",
+                    "    public static final String BINARY = \""
+                            + BytecodeResources.PLACEHOLDER
+                            + "\";",
+                    "",
+                    "    private static String librariesLinkedBinary;",
+                    "",
+                    "    public static final String FUNC_BINARY = \"BINARY\";",
+                    "",
+                    "    protected Token(String contractAddress, Web3j web3j, "
+                            + "Credentials credentials,",
+                    "            ContractGasProvider contractGasProvider) {",
+                    "        super(BINARY, contractAddress, web3j, credentials, "
+                            + "contractGasProvider);",
+                    "    }",
+                    "",
+                    "    // A function named BINARY() is not the field",
+                    "    public String BINARY() {",
+                    "        return FUNC_BINARY + \" BINARY\" + 'B';",
+                    "    }",
+                    "",
+                    "    public static Token load(String contractAddress, Web3j web3j,",
+                    "            Credentials credentials, "
+                            + "ContractGasProvider contractGasProvider) {",
+                    "        return new Token(contractAddress, web3j, credentials, "
+                            + "contractGasProvider);",
+                    "    }",
+                    "",
+                    "    public static RemoteCall<Token> deploy(Web3j web3j, "
+                            + "Credentials credentials,",
+                    "            ContractGasProvider contractGasProvider) {",
+                    "        return deployRemoteCall(Token.class, web3j, credentials, "
+                            + "contractGasProvider,",
+                    "                getDeploymentBinary(), \"\");",
+                    "    }",
+                    "",
+                    "    public static void linkLibraries("
+                            + "List<Contract.LinkReference> references) {",
+                    "        librariesLinkedBinary = "
+                            + "linkBinaryWithReferences(BINARY, references);",
+                    "    }",
+                    "",
+                    "    private static String getDeploymentBinary() {",
+                    "        if (librariesLinkedBinary != null) {",
+                    "            return librariesLinkedBinary;",
+                    "        } else {",
+                    "            return BINARY;",
+                    "        }",
+                    "    }",
+                    "}");
+
+    private Path outputDir;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        outputDir = Files.createTempDirectory("outputDir");
+    }
+
+    @Test
+    public void rewriteDeploymentReferencesOnly() throws Exception {
+        final String wrapper = extract(WRAPPER);
+
+        assertFalse(wrapper.contains("String BINARY ="));
+        assertTrue(wrapper.contains("super(BIN_NOT_PROVIDED, contractAddress,"));
+        assertTrue(wrapper.contains("linkBinaryWithReferences(loadBinary(), references)"));
+        assertTrue(wrapper.contains("            return loadBinary();"));
+
+        // Comments, literals and a function with the same name are left unchanged
+        assertTrue(wrapper.contains(" * <p>The BINARY field holds the contract bytecode."));
+        assertTrue(wrapper.contains("public static final String FUNC_BINARY = \"BINARY\";"));
+        assertTrue(wrapper.contains("    // A function named BINARY() is not the field"));
+        assertTrue(wrapper.contains("    public String BINARY() {"));
+        assertTrue(wrapper.contains("return FUNC_BINARY + \" BINARY\" + 'B';"));
+    }
+
+    @Test
+    public void loadBinaryOnDeployment() throws Exception {
+        extract(WRAPPER);
+        final Class<?> wrapperClass = compile();
+
+        final Method deploymentBinary = wrapperClass.getDeclaredMethod("getDeploymentBinary");
+        deploymentBinary.setAccessible(true);
+        assertEquals(BIN, deploymentBinary.invoke(null));
+    }
+
+    @Test
+    public void loadWithoutBinaryResource() throws Exception {
+        extract(WRAPPER);
+        Files.delete(outputDir.resolve("org/web3j/test/Token" + BytecodeResources.EXTENSION));
+        final Class<?> wrapperClass = compile();
+
+        // Loading a deployed contract neither reads nor needs the binary
+        final Contract contract =
+                (Contract)
+                        wrapperClass
+                                .getMethod(
+                                        "load",
+                                        String.class,
+                                        Web3j.class,
+                                        Credentials.class,
+                                        ContractGasProvider.class)
+                                .invoke(
+                                        null,
+                                        ADDRESS,
+                                        Web3j.build(new HttpService()),
+                                        Credentials.create("0x1"),
+                                        new DefaultGasProvider());
+        assertEquals(ADDRESS, contract.getContractAddress());
+        assertEquals(Contract.BIN_NOT_PROVIDED, contract.getContractBinary());
+    }
+
+    @Test
+    public void extractFailsOnOtherReferences() throws Exception {
+        final List<String> wrapper = new ArrayList<>(WRAPPER.subList(0, WRAPPER.size() - 1));
+        wrapper.add("    public static final String COPY = BINARY;");
+        wrapper.add("}");
+
+        assertThrows(IOException.class, () -> extract(wrapper));
+    }
+
+    private String extract(final List<String> lines) throws IOException {
+        final Path wrapper = outputDir.resolve("org/web3j/test/Token.java");
+        Files.createDirectories(wrapper.getParent());
+        Files.write(wrapper, lines, StandardCharsets.UTF_8);
+
+        BytecodeResources.extract(outputDir.toFile(), "Token", "org.web3j.test", BIN);
+        return new String(Files.readAllBytes(wrapper), StandardCharsets.UTF_8);
+    }
+
+    private Class<?> compile() throws Exception {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertEquals(
+                0,
+                compiler.run(
+                        null,
+                        null,
+                        null,
+                        "-encoding",
+                        "UTF-8",
+                        "-classpath",
+                        System.getProperty("java.class.path"),
+                        outputDir.resolve("org/web3j/test/Token.java").toString()));
+
+        final URLClassLoader classLoader =
+                new URLClassLoader(
+                        new URL[] {outputDir.toUri().toURL()}, getClass().getClassLoader());
+        return classLoader.loadClass("org.web3j.test.Token");
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2019 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.gradle.plugin;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import org.web3j.protocol.core.methods.response.AbiDefinition;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ContractAbiTest {
+
+    private static final String ABI =
+            "[{\"type\":\"constructor\",\"inputs\":[]},"
+                    + "{\"type\":\"function\",\"name\":\"fill\","
+                    + "\"inputs\":[{\"name\":\"order\",\"type\":\"tuple\","
+                    + "\"components\":[{\"name\":\"maker\",\"type\":\"address\"},"
+                    + "{\"name\":\"amount\",\"type\":\"uint256\"}]},"
+                    + "{\"name\":\"ids\",\"type\":\"uint8[]\"}],\"outputs\":[]},"
+                    + "{\"type\":\"event\",\"name\":\"Filled\",\"anonymous\":false,"
+                    + "\"inputs\":[{\"name\":\"maker\",\"type\":\"address\",\"indexed\":true}]},"
+                    + "{\"type\":\"function\",\"name\":\"cancel\","
+                    + "\"inputs\":[{\"name\":\"id\",\"type\":\"bytes32\"}],\"outputs\":[]}]";
+
+    @Test
+    public void parseOnceAndFilterParsedDefinitions() throws IOException {
+        final ContractAbi abi = ContractAbi.parse(ABI.getBytes(StandardCharsets.UTF_8));
+        final List<AbiDefinition> definitions = abi.getDefinitions();
+        assertEquals(4, definitions.size());
+
+        // Functions and events are filtered from the parsed definitions, not parsed again
+        final List<AbiDefinition> functions = abi.getFunctions();
+        assertEquals(2, functions.size());
+        assertSame(definitions.get(1), functions.get(0));
+        assertSame(definitions.get(3), functions.get(1));
+
+        final List<AbiDefinition> events = abi.getEvents();
+        assertEquals(1, events.size());
+        assertSame(definitions.get(2), events.get(0));
+    }
+
+    @Test
+    public void parseStreamedFromFile() throws IOException {
+        final Path abiFile = Files.createTempFile("Contract", ".abi");
+        Files.write(abiFile, ABI.getBytes(StandardCharsets.UTF_8));
+
+        final ContractAbi abi = ContractAbi.parse(abiFile);
+        assertEquals(
+                List.of("fill((address,uint256),uint8[])", "cancel(bytes32)"),
+                abi.getFunctions().stream()
+                        .map(ContractAbi::signature)
+                        .collect(Collectors.toList()));
+        assertEquals("Filled(address)", ContractAbi.signature(abi.getEvents().get(0)));
+    }
+
+    @Test
+    public void parseRejectsNonArray() {
+        assertThrows(
+                IOException.class,
+                () -> ContractAbi.parse("{\"abi\":[]}".getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2019 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.gradle.plugin;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.abi.TypeEncoder;
+import org.web3j.abi.datatypes.Address;
+import org.web3j.abi.datatypes.Bool;
+import org.web3j.abi.datatypes.generated.Uint256;
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.http.HttpService;
+import org.web3j.tx.exceptions.ContractCallException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ContractBatchReaderGeneratorTest {
+
+    private static final String ABI =
+            "[{\"type\":\"function\",\"name\":\"balanceOf\",\"stateMutability\":\"view\","
+                    + "\"inputs\":[{\"name\":\"owner\",\"type\":\"address\"}],"
+                    + "\"outputs\":[{\"name\":\"\",\"type\":\"uint256\"}]},"
+                    + "{\"type\":\"function\",\"name\":\"reserves\",\"stateMutability\":\"view\","
+                    + "\"inputs\":[],\"outputs\":[{\"name\":\"amount\",\"type\":\"uint256\"},"
+                    + "{\"name\":\"locked\",\"type\":\"bool\"}]}]";
+
+    private static final String CONTRACT = "0x00000000000000000000000000000000000000cc";
+    private static final String OWNER = "0x00000000000000000000000000000000000000aa";
+
+    /** Balances are only known for {@link #OWNER}, other calls fail with an error. */
+    private static final String UNKNOWN = "0x00000000000000000000000000000000000000bb";
+
+    private final ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
+    private final AtomicInteger batches = new AtomicInteger();
+
+    private Path outputDir;
+    private HttpServer server;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        outputDir = Files.createTempDirectory("outputDir");
+
+        // A JSON-RPC node answering eth_call batches in reverse order
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext(
+                "/",
+                exchange -> {
+                    final JsonNode requests;
+                    try (InputStream body = exchange.getRequestBody()) {
+                        requests = objectMapper.readTree(body);
+                    }
+                    final List<JsonNode> responses = new ArrayList<>();
+                    for (final JsonNode request : requests) {
+                        responses.add(respond(request));
+                    }
+                    Collections.reverse(responses);
+                    batches.incrementAndGet();
+
+                    final ArrayNode array = objectMapper.createArrayNode().addAll(responses);
+                    final byte[] response = objectMapper.writeValueAsBytes(array);
+                    exchange.getResponseHeaders().add("Content-Type", "application/json");
+                    exchange.sendResponseHeaders(200, response.length);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(response);
+                    }
+                });
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void sendCallsInSingleBatch() throws Exception {
+        final Class<?> readerClass = compileReader("Token", ABI, false);
+        final Object reader = newReader(readerClass);
+
+        final Object balance =
+                readerClass.getMethod("addBalanceOf", Address.class)
+                        .invoke(reader, new Address(OWNER));
+        final Object unknown =
+                readerClass.getMethod("addBalanceOf", Address.class)
+                        .invoke(reader, new Address(UNKNOWN));
+        final Object reserves = readerClass.getMethod("addReserves").invoke(reader);
+        assertEquals(3, readerClass.getMethod("size").invoke(reader));
+
+        readerClass.getMethod("send").invoke(reader);
+        assertEquals(1, batches.get());
+        assertEquals(0, readerClass.getMethod("size").invoke(reader));
+
+        // Responses came in reverse order, and are matched to their calls by id
+        assertTrue(isSuccessful(balance));
+        assertEquals(new Uint256(BigInteger.valueOf(1000)), get(balance));
+        assertEquals(
+                List.of(new Uint256(BigInteger.valueOf(42)), new Bool(true)), get(reserves));
+
+        // A failed call does not fail the other calls of the batch
+        assertFalse(isSuccessful(unknown));
+        final InvocationTargetException exception =
+                assertThrows(InvocationTargetException.class, () -> get(unknown));
+        assertTrue(exception.getCause() instanceof ContractCallException);
+        assertEquals(
+                "Call balanceOf failed: execution reverted: unknown owner",
+                exception.getCause().getMessage());
+    }
+
+    @Test
+    public void decodeNativeResults() throws Exception {
+        final Class<?> readerClass = compileReader("Token", ABI, true);
+        final Object reader = newReader(readerClass);
+
+        final Object balance =
+                readerClass.getMethod("addBalanceOf", Address.class)
+                        .invoke(reader, new Address(OWNER));
+        final Object reserves = readerClass.getMethod("addReserves").invoke(reader);
+        readerClass.getMethod("send").invoke(reader);
+
+        // Results are the Java values, as returned by a wrapper with native types
+        assertEquals(BigInteger.valueOf(1000), get(balance));
+        assertEquals(List.of(BigInteger.valueOf(42), true), get(reserves));
+    }
+
+    @Test
+    public void getBeforeSendFails() throws Exception {
+        final Class<?> readerClass = compileReader("Token", ABI, false);
+        final Object reader =
+                readerClass
+                        .getConstructor(Web3j.class, String.class)
+                        .newInstance(Web3j.build(new HttpService()), CONTRACT);
+
+        final Object reserves = readerClass.getMethod("addReserves").invoke(reader);
+        final InvocationTargetException exception =
+                assertThrows(InvocationTargetException.class, () -> get(reserves));
+        assertTrue(exception.getCause() instanceof ContractCallException);
+        assertEquals(0, batches.get());
+    }
+
+    private ObjectNode respond(final JsonNode request) {
+        final ObjectNode response = objectMapper.createObjectNode();
+        response.put("jsonrpc", "2.0");
+        response.set("id", request.get("id"));
+
+        final String data = request.get("params").get(0).get("data").asText();
+        if (data.startsWith(FunctionEncoder.buildMethodId("reserves()"))) {
+            response.put(
+                    "result",
+                    "0x"
+                            + TypeEncoder.encode(new Uint256(BigInteger.valueOf(42)))
+                            + TypeEncoder.encode(new Bool(true)));
+        } else if (data.endsWith(OWNER.substring("0x".length()))) {
+            response.put(
+                    "result", "0x" + TypeEncoder.encode(new Uint256(BigInteger.valueOf(1000))));
+        } else {
+            response.putObject("error")
+                    .put("code", -32000)
+                    .put("message", "execution reverted: unknown owner");
+        }
+        return response;
+    }
+
+    private Object newReader(final Class<?> readerClass) throws Exception {
+        final Web3j web3j =
+                Web3j.build(
+                        new HttpService(
+                                "http://127.0.0.1:" + server.getAddress().getPort() + "/"));
+        return readerClass.getConstructor(Web3j.class, String.class).newInstance(web3j, CONTRACT);
+    }
+
+    private Class<?> compileReader(
+            final String contractName, final String abi, final boolean useNativeJavaTypes)
+            throws Exception {
+        ContractBatchReaderGenerator.generate(
+                contractName,
+                ContractAbi.parse(abi.getBytes(StandardCharsets.UTF_8)),
+                "org.web3j.test",
+                useNativeJavaTypes,
+                outputDir.toFile());
+
+        final Path source =
+                outputDir.resolve(
+                        "org/web3j/test/" + contractName + ContractBatchReaderGenerator.CLASS_SUFFIX
+                                + ".java");
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertEquals(
+                0,
+                compiler.run(
+                        null,
+                        null,
+                        null,
+                        "-encoding",
+                        "UTF-8",
+                        "-classpath",
+                        System.getProperty("java.class.path"),
+                        source.toString()));
+
+        final URLClassLoader classLoader =
+                new URLClassLoader(
+                        new URL[] {outputDir.toUri().toURL()}, getClass().getClassLoader());
+        return classLoader.loadClass(
+                "org.web3j.test." + contractName + ContractBatchReaderGenerator.CLASS_SUFFIX);
+    }
+
+    private static Object get(final Object call) throws Exception {
+        return call.getClass().getMethod("get").invoke(call);
+    }
+
+    private static boolean isSuccessful(final Object call) throws Exception {
+        return (Boolean) call.getClass().getMethod("isSuccessful").invoke(call);
+    }
+}
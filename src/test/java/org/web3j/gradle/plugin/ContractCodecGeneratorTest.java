@@ -0,0 +1,294 @@
+/*
+ * Copyright 2019 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.gradle.plugin;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.math.BigInteger;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.abi.FunctionReturnDecoder;
+import org.web3j.abi.TypeEncoder;
+import org.web3j.abi.TypeReference;
+import org.web3j.abi.datatypes.Address;
+import org.web3j.abi.datatypes.Bool;
+import org.web3j.abi.datatypes.Function;
+import org.web3j.abi.datatypes.Type;
+import org.web3j.abi.datatypes.generated.Bytes32;
+import org.web3j.abi.datatypes.generated.Int256;
+import org.web3j.abi.datatypes.generated.Int64;
+import org.web3j.abi.datatypes.generated.Uint64;
+import org.web3j.abi.datatypes.generated.Uint8;
+import org.web3j.utils.Numeric;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ContractCodecGeneratorTest {
+
+    private static final String ABI =
+            "[{\"type\":\"function\",\"name\":\"set\",\"stateMutability\":\"nonpayable\","
+                    + "\"inputs\":[{\"name\":\"small\",\"type\":\"uint8\"},"
+                    + "{\"name\":\"delta\",\"type\":\"int256\"},"
+                    + "{\"name\":\"stamp\",\"type\":\"int64\"},"
+                    + "{\"name\":\"flag\",\"type\":\"bool\"},"
+                    + "{\"name\":\"owner\",\"type\":\"address\"},"
+                    + "{\"name\":\"id\",\"type\":\"bytes32\"}],\"outputs\":[]},"
+                    + getter("small", "uint8")
+                    + ","
+                    + getter("delta", "int256")
+                    + ","
+                    + getter("stamp", "int64")
+                    + ","
+                    + getter("large", "uint64")
+                    + ","
+                    + getter("flag", "bool")
+                    + ","
+                    + getter("owner", "address")
+                    + ","
+                    + getter("id", "bytes32")
+                    + "]";
+
+    private static final String OWNER = "0x00000000000000000000000000000000deadbeef";
+
+    private Path outputDir;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        outputDir = Files.createTempDirectory("outputDir");
+    }
+
+    @Test
+    public void encodeLikeFunctionEncoder() throws Exception {
+        final Class<?> codec = compileCodec("Store", ABI);
+        final byte[] id = new byte[32];
+        Arrays.fill(id, (byte) 0xab);
+
+        final byte[] encoded =
+                (byte[])
+                        codec.getMethod(
+                                        "encodeSet",
+                                        int.class,
+                                        BigInteger.class,
+                                        long.class,
+                                        boolean.class,
+                                        String.class,
+                                        byte[].class)
+                                .invoke(
+                                        null,
+                                        255,
+                                        BigInteger.valueOf(-42),
+                                        Long.MIN_VALUE,
+                                        true,
+                                        OWNER,
+                                        id);
+
+        final Function function =
+                new Function(
+                        "set",
+                        Arrays.<Type>asList(
+                                new Uint8(BigInteger.valueOf(255)),
+                                new Int256(BigInteger.valueOf(-42)),
+                                new Int64(BigInteger.valueOf(Long.MIN_VALUE)),
+                                new Bool(true),
+                                new Address(OWNER),
+                                new Bytes32(id)),
+                        List.of());
+        assertArrayEquals(Numeric.hexStringToByteArray(FunctionEncoder.encode(function)), encoded);
+    }
+
+    @Test
+    public void decodeLikeFunctionReturnDecoder() throws Exception {
+        final Class<?> codec = compileCodec("Store", ABI);
+        final byte[] id = new byte[32];
+        Arrays.fill(id, (byte) 0xcd);
+
+        // Integers fitting in a Java int or long are decoded as such
+        assertDecoded(codec, "decodeSmall", new Uint8(BigInteger.valueOf(200)), 200);
+        assertDecoded(codec, "decodeStamp", new Int64(BigInteger.valueOf(-7)), -7L);
+        assertDecoded(
+                codec,
+                "decodeLarge",
+                new Uint64(BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE)),
+                BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE));
+        assertDecoded(codec, "decodeDelta", new Int256(BigInteger.valueOf(-42)));
+        assertDecoded(codec, "decodeDelta", new Int256(BigInteger.ONE.shiftLeft(255).negate()));
+        assertDecoded(codec, "decodeFlag", new Bool(true));
+        assertDecoded(codec, "decodeOwner", new Address(OWNER));
+
+        final byte[] output = Numeric.hexStringToByteArray(TypeEncoder.encode(new Bytes32(id)));
+        assertArrayEquals(
+                id,
+                (byte[])
+                        codec.getMethod("decodeId", byte[].class, int.class)
+                                .invoke(null, output, 0));
+    }
+
+    @Test
+    public void encodeRejectsOutOfRangeValues() throws Exception {
+        final Class<?> codec = compileCodec("Store", ABI);
+        final Method encode =
+                codec.getMethod(
+                        "encodeSet",
+                        int.class,
+                        BigInteger.class,
+                        long.class,
+                        boolean.class,
+                        String.class,
+                        byte[].class);
+        final BigInteger delta = BigInteger.ONE;
+        final byte[] id = new byte[32];
+
+        assertRejected(encode, 256, delta, OWNER, id);
+        assertRejected(encode, -1, delta, OWNER, id);
+        assertRejected(encode, 1, BigInteger.ONE.shiftLeft(255), OWNER, id);
+        assertRejected(
+                encode, 1, BigInteger.ONE.shiftLeft(255).negate().subtract(delta), OWNER, id);
+        assertRejected(encode, 1, delta, "0xdeadbeef", id);
+        assertRejected(encode, 1, delta, OWNER, new byte[31]);
+    }
+
+    @Test
+    public void decodeRejectsOutOfRangeValues() throws Exception {
+        final Class<?> codec = compileCodec("Store", ABI);
+        final Method decode = codec.getMethod("decodeSmall", byte[].class, int.class);
+
+        // A uint8 output with a value over 8 bits is not truncated into an int
+        for (final int index : new int[] {0, 30}) {
+            final byte[] output = new byte[32];
+            output[index] = 1;
+            final InvocationTargetException exception =
+                    assertThrows(
+                            InvocationTargetException.class, () -> decode.invoke(null, output, 0));
+            assertTrue(exception.getCause() instanceof IllegalArgumentException);
+        }
+    }
+
+    @Test
+    public void selectorNamesAreUniqueAndLocaleIndependent() throws Exception {
+        final String abi =
+                "[{\"type\":\"function\",\"name\":\"transfer\",\"stateMutability\":\"nonpayable\","
+                        + "\"inputs\":[{\"name\":\"to\",\"type\":\"address\"}],\"outputs\":[]},"
+                        + "{\"type\":\"function\",\"name\":\"Transfer\","
+                        + "\"stateMutability\":\"nonpayable\","
+                        + "\"inputs\":[{\"name\":\"value\",\"type\":\"uint256\"}],\"outputs\":[]},"
+                        + getter("isValid", "bool")
+                        + "]";
+
+        final Locale locale = Locale.getDefault();
+        final Class<?> codec;
+        try {
+            // Upper-casing "i" in a Turkish locale would give a dotted capital I
+            Locale.setDefault(Locale.forLanguageTag("tr"));
+            codec = compileCodec("Transfers", abi);
+        } finally {
+            Locale.setDefault(locale);
+        }
+
+        assertEquals(selector("transfer(address)"), codec.getField("SELECTOR_TRANSFER").get(null));
+        assertEquals(
+                selector("Transfer(uint256)"), codec.getField("SELECTOR_TRANSFER_1").get(null));
+        assertEquals(selector("isValid()"), codec.getField("SELECTOR_ISVALID").get(null));
+        codec.getMethod("encodeTransfer", String.class);
+        codec.getMethod("encodeTransfer_1", BigInteger.class);
+    }
+
+    private Class<?> compileCodec(final String contractName, final String abi) throws Exception {
+        ContractCodecGenerator.generate(
+                contractName,
+                ContractAbi.parse(abi.getBytes(StandardCharsets.UTF_8)),
+                "org.web3j.test",
+                20,
+                outputDir.toFile());
+
+        final Path source =
+                outputDir.resolve(
+                        "org/web3j/test/" + contractName + ContractCodecGenerator.CLASS_SUFFIX
+                                + ".java");
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertEquals(0, compiler.run(null, null, null, "-encoding", "UTF-8", source.toString()));
+
+        final URLClassLoader classLoader =
+                new URLClassLoader(
+                        new URL[] {outputDir.toUri().toURL()}, getClass().getClassLoader());
+        return classLoader.loadClass(
+                "org.web3j.test." + contractName + ContractCodecGenerator.CLASS_SUFFIX);
+    }
+
+    private static void assertDecoded(
+            final Class<?> codec, final String method, final Type<?> value) throws Exception {
+        assertDecoded(codec, method, value, null);
+    }
+
+    /** Asserts a value is decoded like FunctionReturnDecoder does, or as an expected value. */
+    private static void assertDecoded(
+            final Class<?> codec, final String method, final Type<?> value, final Object decoded)
+            throws Exception {
+        final String output = TypeEncoder.encode(value);
+        final Function function =
+                new Function(
+                        "get",
+                        List.of(),
+                        Arrays.<TypeReference<?>>asList(TypeReference.create(value.getClass())));
+        final List<Type> expected =
+                FunctionReturnDecoder.decode(output, function.getOutputParameters());
+
+        assertEquals(
+                decoded == null ? expected.get(0).getValue() : decoded,
+                codec.getMethod(method, byte[].class, int.class)
+                        .invoke(null, Numeric.hexStringToByteArray(output), 0));
+    }
+
+    private static void assertRejected(
+            final Method encode,
+            final int small,
+            final BigInteger delta,
+            final String owner,
+            final byte[] id) {
+        final InvocationTargetException exception =
+                assertThrows(
+                        InvocationTargetException.class,
+                        () -> encode.invoke(null, small, delta, 0L, false, owner, id));
+        assertTrue(exception.getCause() instanceof IllegalArgumentException);
+    }
+
+    private static int selector(final String signature) {
+        return Integer.parseUnsignedInt(
+                FunctionEncoder.buildMethodId(signature).substring("0x".length()), 16);
+    }
+
+    private static String getter(final String name, final String type) {
+        return "{\"type\":\"function\",\"name\":\""
+                + name
+                + "\",\"stateMutability\":\"view\",\"inputs\":[],"
+                + "\"outputs\":[{\"name\":\"\",\"type\":\""
+                + type
+                + "\"}]}";
+    }
+}
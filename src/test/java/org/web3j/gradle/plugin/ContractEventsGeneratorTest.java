@@ -0,0 +1,196 @@
+/*
+ * Copyright 2019 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.gradle.plugin;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.abi.TypeEncoder;
+import org.web3j.abi.datatypes.Address;
+import org.web3j.abi.datatypes.Bool;
+import org.web3j.abi.datatypes.DynamicArray;
+import org.web3j.abi.datatypes.Type;
+import org.web3j.abi.datatypes.generated.Uint256;
+import org.web3j.protocol.core.methods.response.Log;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ContractEventsGeneratorTest {
+
+    private static final String ABI =
+            "[{\"type\":\"event\",\"name\":\"Transfer\",\"anonymous\":false,"
+                    + "\"inputs\":[{\"name\":\"from\",\"type\":\"address\",\"indexed\":true},"
+                    + "{\"name\":\"to\",\"type\":\"address\",\"indexed\":true},"
+                    + "{\"name\":\"value\",\"type\":\"uint256\",\"indexed\":false}]},"
+                    + "{\"type\":\"event\",\"name\":\"Batch\",\"anonymous\":false,"
+                    + "\"inputs\":[{\"name\":\"ids\",\"type\":\"uint256[]\",\"indexed\":false},"
+                    + "{\"name\":\"ok\",\"type\":\"bool\",\"indexed\":false}]},"
+                    + "{\"type\":\"event\",\"name\":\"Approval\",\"anonymous\":false,"
+                    + "\"inputs\":[{\"name\":\"owner\",\"type\":\"address\",\"indexed\":true}]},"
+                    + "{\"type\":\"event\",\"name\":\"Approval\",\"anonymous\":false,"
+                    + "\"inputs\":[]}]";
+
+    private static final String FROM = "0x00000000000000000000000000000000000000aa";
+    private static final String TO = "0x00000000000000000000000000000000000000bb";
+
+    private Path outputDir;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        outputDir = Files.createTempDirectory("outputDir");
+    }
+
+    @Test
+    public void decodeIntoEventResponses() throws Exception {
+        final Class<?> events = compileEvents("Token", true);
+        final String topic = (String) events.getField("TOPIC_TRANSFER").get(null);
+        assertEquals("0xddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef", topic);
+
+        final Log log =
+                log(
+                        "0x" + TypeEncoder.encode(new Uint256(BigInteger.valueOf(1000))),
+                        topic,
+                        "0x" + TypeEncoder.encode(new Address(FROM)),
+                        "0x" + TypeEncoder.encode(new Address(TO)));
+        final Object response = decode(events, log);
+
+        // The response is the class of the wrapper, filled as from a transaction receipt
+        assertEquals("org.web3j.test.Token$TransferEventResponse", response.getClass().getName());
+        assertSame(log, field(response, "log"));
+        assertEquals(FROM, field(response, "from"));
+        assertEquals(TO, field(response, "to"));
+        assertEquals(BigInteger.valueOf(1000), field(response, "value"));
+        assertEquals(
+                response.getClass(),
+                events.getMethod("decodeTransfer", Log.class).getReturnType());
+    }
+
+    @Test
+    public void decodeArraysIntoNativeValues() throws Exception {
+        final Class<?> events = compileEvents("Token", true);
+        final DynamicArray<Uint256> ids =
+                new DynamicArray<>(
+                        Uint256.class, new Uint256(BigInteger.ONE), new Uint256(BigInteger.TWO));
+
+        final String data = FunctionEncoder.encodeConstructor(List.<Type>of(ids, new Bool(true)));
+
+        final Object response =
+                decode(events, log("0x" + data, (String) events.getField("TOPIC_BATCH").get(null)));
+        assertEquals(List.of(BigInteger.ONE, BigInteger.TWO), field(response, "ids"));
+        assertEquals(true, field(response, "ok"));
+    }
+
+    @Test
+    public void decodeIntoSolidityTypes() throws Exception {
+        final Class<?> events = compileEvents("Token", false);
+
+        final Object response =
+                decode(
+                        events,
+                        log(
+                                "0x" + TypeEncoder.encode(new Uint256(BigInteger.TEN)),
+                                (String) events.getField("TOPIC_TRANSFER").get(null),
+                                "0x" + TypeEncoder.encode(new Address(FROM)),
+                                "0x" + TypeEncoder.encode(new Address(TO))));
+        assertEquals(new Address(FROM), field(response, "from"));
+        assertEquals(new Uint256(BigInteger.TEN), field(response, "value"));
+    }
+
+    @Test
+    public void decodeUnknownLogs() throws Exception {
+        final Class<?> events = compileEvents("Token", true);
+        final String topic = (String) events.getField("TOPIC_TRANSFER").get(null);
+
+        assertNull(decode(events, log("0x")));
+        assertNull(decode(events, log("0x", "0x" + "00".repeat(32))));
+
+        // A transfer with an indexed value, as in ERC-721, does not match the ERC-20 parameters
+        assertNull(
+                decode(
+                        events,
+                        log(
+                                "0x",
+                                topic,
+                                "0x" + TypeEncoder.encode(new Address(FROM)),
+                                "0x" + TypeEncoder.encode(new Address(TO)),
+                                "0x" + TypeEncoder.encode(new Uint256(BigInteger.ONE)))));
+
+        // Overloaded events share their response class, so they are not decoded
+        assertTrue(
+                Arrays.stream(events.getMethods())
+                        .noneMatch(method -> method.getName().equals("decodeApproval")));
+    }
+
+    private Class<?> compileEvents(final String contractName, final boolean useNativeJavaTypes)
+            throws Exception {
+        new ContractWrapperGenerator(
+                        useNativeJavaTypes, false, false, 20, null, false, true, false, false)
+                .generate(
+                        contractName,
+                        ContractAbi.parse(ABI.getBytes(StandardCharsets.UTF_8)),
+                        null,
+                        outputDir.toFile(),
+                        "org.web3j.test");
+
+        final List<String> arguments =
+                new ArrayList<>(
+                        List.of(
+                                "-encoding",
+                                "UTF-8",
+                                "-classpath",
+                                System.getProperty("java.class.path")));
+        for (final String source : WrapperFiles.listPaths(outputDir)) {
+            arguments.add(outputDir.resolve(source).toString());
+        }
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertEquals(0, compiler.run(null, null, null, arguments.toArray(new String[0])));
+
+        final URLClassLoader classLoader =
+                new URLClassLoader(
+                        new URL[] {outputDir.toUri().toURL()}, getClass().getClassLoader());
+        return classLoader.loadClass(
+                "org.web3j.test." + contractName + ContractEventsGenerator.CLASS_SUFFIX);
+    }
+
+    private static Object decode(final Class<?> events, final Log log) throws Exception {
+        return events.getMethod("decode", Log.class).invoke(null, log);
+    }
+
+    private static Object field(final Object response, final String name) throws Exception {
+        return response.getClass().getField(name).get(response);
+    }
+
+    private static Log log(final String data, final String... topics) {
+        final Log log = new Log();
+        log.setData(data);
+        log.setTopics(List.of(topics));
+        return log;
+    }
+}
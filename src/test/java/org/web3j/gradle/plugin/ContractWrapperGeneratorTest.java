@@ -0,0 +1,109 @@
+/*
+ * Copyright 2019 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.gradle.plugin;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.web3j.tx.Contract;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ContractWrapperGeneratorTest {
+
+    private static final String ABI =
+            "[{\"type\":\"function\",\"name\":\"balanceOf\",\"stateMutability\":\"view\","
+                    + "\"inputs\":[{\"name\":\"owner\",\"type\":\"address\"}],"
+                    + "\"outputs\":[{\"name\":\"balance\",\"type\":\"uint256\"}]},"
+                    + "{\"type\":\"event\",\"name\":\"Transfer\",\"anonymous\":false,"
+                    + "\"inputs\":[{\"name\":\"from\",\"type\":\"address\",\"indexed\":true},"
+                    + "{\"name\":\"value\",\"type\":\"uint256\",\"indexed\":false}]}]";
+
+    private Path outputDir;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        outputDir = Files.createTempDirectory("outputDir");
+    }
+
+    @Test
+    public void generateWrapperInProcess() throws Exception {
+        final ContractWrapperGenerator generator =
+                new ContractWrapperGenerator(
+                        false, false, true, 20, null, false, false, false, false);
+
+        // The parsed ABI is passed directly, no ABI or binary file is read
+        generator.generate(
+                "Token",
+                ContractAbi.parse(ABI.getBytes(StandardCharsets.UTF_8)),
+                "0x6080",
+                outputDir.toFile(),
+                "org.web3j.test");
+
+        final Path wrapper = outputDir.resolve("org/web3j/test/Token.java");
+        assertTrue(Files.exists(wrapper));
+
+        final String source = new String(Files.readAllBytes(wrapper), StandardCharsets.UTF_8);
+        assertTrue(source.contains("public class Token extends Contract"));
+        assertTrue(source.contains("\"0x6080\""));
+        assertTrue(source.contains("balanceOf("));
+        assertTrue(source.contains("TransferEventResponse"));
+        assertFalse(source.contains(Contract.BIN_NOT_PROVIDED));
+    }
+
+    @Test
+    public void generateAbiOnlyWrapperInProcess() throws Exception {
+        final ContractWrapperGenerator generator =
+                new ContractWrapperGenerator(
+                        true, false, false, 20, null, false, false, false, false);
+
+        generator.generate(
+                "Token",
+                ContractAbi.parse(ABI.getBytes(StandardCharsets.UTF_8)),
+                null,
+                outputDir.toFile(),
+                "org.web3j.test");
+
+        final String source =
+                new String(
+                        Files.readAllBytes(outputDir.resolve("org/web3j/test/Token.java")),
+                        StandardCharsets.UTF_8);
+        assertTrue(source.contains(Contract.BIN_NOT_PROVIDED));
+    }
+
+    @Test
+    public void generateWrapperWithEmptyAbiFails() {
+        final ContractWrapperGenerator generator =
+                new ContractWrapperGenerator(
+                        false, false, true, 20, null, false, false, false, false);
+
+        // Errors are thrown to the worker instead of exiting the Gradle daemon
+        assertThrows(
+                IOException.class,
+                () ->
+                        generator.generate(
+                                "Empty",
+                                new ContractAbi(List.of()),
+                                "0x",
+                                outputDir.toFile(),
+                                "org.web3j.test"));
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2019 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.gradle.plugin;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PackageMapperTest {
+
+    @Test
+    public void mapNestedSourceDirectories() {
+        final Map<String, String> mappings = new LinkedHashMap<>();
+        mappings.put("**/mocks/**", "org.web3j.test.mocks");
+        mappings.put("tokens/**", "com.mycompany.{1}");
+        mappings.put("Governor", "com.mycompany.governance");
+        final PackageMapper mapper = new PackageMapper("org.web3j.{0}", mappings);
+
+        assertEquals("com.mycompany.tokens.erc20", mapper.map("Token", "tokens/erc20/Token"));
+        assertEquals(
+                "com.mycompany.tokens.erc20.extensions",
+                mapper.map("Burnable", "tokens/erc20/extensions/Burnable"));
+        assertEquals("com.mycompany.tokens.erc_721", mapper.map("Nft", "tokens/erc-721/Nft"));
+        assertEquals("com.mycompany.tokens", mapper.map("Vault", "tokens/Vault"));
+        assertEquals("com.mycompany.governance", mapper.map("Governor", "dao/Governor"));
+
+        // The first matching pattern wins
+        assertEquals("org.web3j.test.mocks", mapper.map("TokenMock", "tokens/mocks/TokenMock"));
+
+        // Contracts matching no pattern use the default template
+        assertEquals("org.web3j.registry", mapper.map("Registry", "core/Registry"));
+    }
+
+    @Test
+    public void mapSourceDirectoriesToValidPackages() {
+        final PackageMapper mapper = new PackageMapper("org.web3j.{1}", Map.of());
+
+        assertEquals("org.web3j", mapper.map("Token", "Token"));
+        assertEquals("org.web3j._interface.v_2", mapper.map("Token", "interface/V-2/Token"));
+        assertEquals("org.web3j._1inch", mapper.map("Router", "./1inch/Router"));
+    }
+}
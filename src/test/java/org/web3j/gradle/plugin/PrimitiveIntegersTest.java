@@ -0,0 +1,186 @@
+/*
+ * Copyright 2019 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.gradle.plugin;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PrimitiveIntegersTest {
+
+    private static final String ABI =
+            "[{\"type\":\"function\",\"name\":\"decimals\",\"stateMutability\":\"view\","
+                    + "\"inputs\":[],\"outputs\":[{\"name\":\"\",\"type\":\"uint8\"}]},"
+                    + "{\"type\":\"function\",\"name\":\"totalSupply\","
+                    + "\"stateMutability\":\"view\","
+                    + "\"inputs\":[],\"outputs\":[{\"name\":\"\",\"type\":\"uint64\"}]},"
+                    + "{\"type\":\"function\",\"name\":\"lock\",\"stateMutability\":\"payable\","
+                    + "\"inputs\":[{\"name\":\"until\",\"type\":\"uint32\"},"
+                    + "{\"name\":\"strict\",\"type\":\"bool\"},"
+                    + "{\"name\":\"ids\",\"type\":\"uint8[]\"}],\"outputs\":[]},"
+                    + "{\"type\":\"event\",\"name\":\"Locked\",\"anonymous\":false,"
+                    + "\"inputs\":[{\"name\":\"until\",\"type\":\"uint32\",\"indexed\":true},"
+                    + "{\"name\":\"amount\",\"type\":\"uint256\",\"indexed\":false},"
+                    + "{\"name\":\"strict\",\"type\":\"bool\",\"indexed\":false}]}]";
+
+    private static final List<String> WRAPPER =
+            List.of(
+                    "package org.web3j.test;",
+                    "",
+                    "public class Token extends Contract {",
+                    "    public RemoteFunctionCall<BigInteger> decimals() {",
+                    "        final Function function = new Function(FUNC_DECIMALS, ",
+                    "                Arrays.<Type>asList(), ",
+                    "                Arrays.<TypeReference<?>>asList("
+                            + "new TypeReference<Uint8>() {}));",
+                    "        return executeRemoteCallSingleValueReturn("
+                            + "function, BigInteger.class);",
+                    "    }",
+                    "",
+                    "    public RemoteFunctionCall<BigInteger> totalSupply() {",
+                    "        final Function function = new Function(FUNC_TOTALSUPPLY, ",
+                    "                Arrays.<Type>asList(), ",
+                    "                Arrays.<TypeReference<?>>asList("
+                            + "new TypeReference<Uint64>() {}));",
+                    "        return executeRemoteCallSingleValueReturn("
+                            + "function, BigInteger.class);",
+                    "    }",
+                    "",
+                    "    public RemoteFunctionCall<TransactionReceipt> lock(BigInteger until,",
+                    "            Boolean strict, List<BigInteger> ids, BigInteger weiValue) {",
+                    "        final Function function = new Function(",
+                    "                FUNC_LOCK, ",
+                    "                Arrays.<Type>asList(new Uint32(until), new Bool(strict), ",
+                    "                new DynamicArray<Uint8>(Uint8.class, "
+                            + "Utils.typeMap(ids, Uint8.class))), ",
+                    "                Collections.<TypeReference<?>>emptyList());",
+                    "        return executeRemoteCallTransaction(function, weiValue);",
+                    "    }",
+                    "",
+                    "    public static LockedEventResponse getLockedEventFromLog(Log log) {",
+                    "        Contract.EventValuesWithLog eventValues = "
+                            + "staticExtractEventParametersWithLog(LOCKED_EVENT, log);",
+                    "        LockedEventResponse typedResponse = new LockedEventResponse();",
+                    "        typedResponse.log = log;",
+                    "        typedResponse.until = (BigInteger) "
+                            + "eventValues.getIndexedValues().get(0).getValue();",
+                    "        typedResponse.amount = (BigInteger) "
+                            + "eventValues.getNonIndexedValues().get(0).getValue();",
+                    "        typedResponse.strict = (Boolean) "
+                            + "eventValues.getNonIndexedValues().get(1).getValue();",
+                    "        return typedResponse;",
+                    "    }",
+                    "",
+                    "    public static class LockedEventResponse extends BaseEventResponse {",
+                    "        public BigInteger until;",
+                    "",
+                    "        public BigInteger amount;",
+                    "",
+                    "        public Boolean strict;",
+                    "    }",
+                    "}");
+
+    private Path outputDir;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        outputDir = Files.createTempDirectory("outputDir");
+    }
+
+    @Test
+    public void narrowFunctions() throws Exception {
+        final String wrapper = narrow(WRAPPER);
+
+        // Return values are converted with a range check
+        assertTrue(wrapper.contains("public RemoteFunctionCall<Integer> decimals() {"));
+        assertTrue(
+                wrapper.contains(
+                        "() -> executeCallSingleValueReturn(function, BigInteger.class)"
+                                + ".intValueExact());"));
+
+        // Unsigned 64-bit integers do not fit in a long
+        assertTrue(wrapper.contains("public RemoteFunctionCall<BigInteger> totalSupply() {"));
+
+        // Arrays and the value sent to payable functions keep their native types
+        assertTrue(
+                wrapper.contains(
+                        "public RemoteFunctionCall<TransactionReceipt> lock(long until,\n"
+                                + "            boolean strict, List<BigInteger> ids,"
+                                + " BigInteger weiValue) {"));
+    }
+
+    @Test
+    public void narrowEventResponses() throws Exception {
+        final String wrapper = narrow(WRAPPER);
+
+        assertTrue(wrapper.contains("        public long until;"));
+        assertTrue(wrapper.contains("        public BigInteger amount;"));
+        assertTrue(wrapper.contains("        public boolean strict;"));
+        assertTrue(
+                wrapper.contains(
+                        "typedResponse.until = ((BigInteger) "
+                                + "eventValues.getIndexedValues().get(0).getValue())"
+                                + ".longValueExact();"));
+        assertTrue(
+                wrapper.contains(
+                        "typedResponse.amount = (BigInteger) "
+                                + "eventValues.getNonIndexedValues().get(0).getValue();"));
+    }
+
+    @Test
+    public void narrowFailsOnUnexpectedEventResponse() throws Exception {
+        final List<String> wrapper =
+                WRAPPER.stream()
+                        .map(line -> line.replace("public BigInteger until;", "BigInteger until;"))
+                        .collect(Collectors.toList());
+
+        assertThrows(IOException.class, () -> narrow(wrapper));
+    }
+
+    @Test
+    public void mapPrimitiveTypes() {
+        assertEquals("int", ContractAbi.primitiveType("int32"));
+        assertEquals("int", ContractAbi.primitiveType("uint24"));
+        assertEquals("long", ContractAbi.primitiveType("uint32"));
+        assertEquals("long", ContractAbi.primitiveType("int64"));
+        assertEquals("boolean", ContractAbi.primitiveType("bool"));
+        assertNull(ContractAbi.primitiveType("uint64"));
+        assertNull(ContractAbi.primitiveType("bytes4"));
+        assertNull(ContractAbi.primitiveType("address"));
+        assertNull(ContractAbi.primitiveType("int256"));
+    }
+
+    private String narrow(final List<String> lines) throws IOException {
+        final Path wrapper = outputDir.resolve("org/web3j/test/Token.java");
+        Files.createDirectories(wrapper.getParent());
+        Files.write(wrapper, lines, StandardCharsets.UTF_8);
+
+        PrimitiveIntegers.narrow(
+                outputDir.toFile(),
+                "Token",
+                "org.web3j.test",
+                ContractAbi.parse(ABI.getBytes(StandardCharsets.UTF_8)));
+        return new String(Files.readAllBytes(wrapper), StandardCharsets.UTF_8);
+    }
+}
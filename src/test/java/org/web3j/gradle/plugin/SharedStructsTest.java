@@ -0,0 +1,130 @@
+/*
+ * Copyright 2019 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.gradle.plugin;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SharedStructsTest {
+
+    private static final String ABI =
+            "[{\"type\":\"function\",\"name\":\"place\",\"stateMutability\":\"nonpayable\","
+                    + "\"outputs\":[],\"inputs\":[{\"name\":\"order\",\"type\":\"tuple\","
+                    + "\"internalType\":\"struct Lib.Order\",\"components\":["
+                    + "{\"name\":\"maker\",\"type\":\"address\",\"internalType\":\"address\"}]}]}]";
+
+    private static final String PACKAGE = "org.web3j.structs";
+
+    private Path outputDir;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        outputDir = Files.createTempDirectory("outputDir");
+    }
+
+    @Test
+    public void extractStructWithLayout() throws Exception {
+        final Path wrapper =
+                writeWrapper(
+                        "    public static class Order extends DynamicStruct {",
+                        "        public String maker;",
+                        "    }");
+
+        SharedStructs.extract(outputDir.toFile(), parse(ABI), PACKAGE);
+
+        final Path struct = outputDir.resolve("org/web3j/structs/lib/Order.java");
+        assertTrue(Files.exists(struct));
+        assertTrue(
+                new String(Files.readAllBytes(wrapper), StandardCharsets.UTF_8)
+                        .contains("import org.web3j.structs.lib.Order;"));
+        assertFalse(
+                new String(Files.readAllBytes(wrapper), StandardCharsets.UTF_8)
+                        .contains("class Order"));
+
+        // Layouts are read back from the generated files, without the ABI
+        assertEquals(
+                Map.of("org.web3j.structs.lib.Order", "Lib.Order(address maker)"),
+                SharedStructs.readLayouts(
+                        outputDir, WrapperFiles.listPaths(outputDir), PACKAGE));
+    }
+
+    @Test
+    public void extractFailsOnUnexpectedStructClass() throws Exception {
+        writeWrapper(
+                "    public static final class Order extends DynamicStruct {",
+                "        public String maker;",
+                "    }");
+
+        assertThrows(
+                IOException.class,
+                () -> SharedStructs.extract(outputDir.toFile(), parse(ABI), PACKAGE));
+    }
+
+    @Test
+    public void extractFailsOnUnknownStructClass() throws Exception {
+        writeWrapper(
+                "    public static class Item extends DynamicStruct {",
+                "        public String maker;",
+                "    }");
+
+        assertThrows(
+                IOException.class,
+                () -> SharedStructs.extract(outputDir.toFile(), parse(ABI), PACKAGE));
+    }
+
+    @Test
+    public void extractFailsOnUnterminatedStructClass() throws Exception {
+        writeWrapper(
+                "    public static class Order extends DynamicStruct {",
+                "        public String maker;");
+
+        assertThrows(
+                IOException.class,
+                () -> SharedStructs.extract(outputDir.toFile(), parse(ABI), PACKAGE));
+    }
+
+    private Path writeWrapper(final String... structLines) throws IOException {
+        final Path wrapper = outputDir.resolve("org/web3j/test/Exchange.java");
+        Files.createDirectories(wrapper.getParent());
+
+        final List<String> lines =
+                new ArrayList<>(
+                        List.of(
+                                "package org.web3j.test;",
+                                "",
+                                "import org.web3j.abi.datatypes.DynamicStruct;",
+                                "",
+                                "public class Exchange {"));
+        lines.addAll(List.of(structLines));
+        lines.add("}");
+        Files.write(wrapper, lines, StandardCharsets.UTF_8);
+        return wrapper;
+    }
+
+    private static ContractAbi parse(final String abi) throws IOException {
+        return ContractAbi.parse(abi.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -18,6 +18,8 @@ import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
 
 import org.gradle.testkit.runner.BuildResult;
 import org.gradle.testkit.runner.GradleRunner;
@@ -207,4 +209,1301 @@ public class Web3jPluginTest {
         assertNotNull(upToDate.task(":generateContractWrappers"));
         assertEquals(UP_TO_DATE, upToDate.task(":generateContractWrappers").getOutcome());
     }
+
+    @Test
+    public void generateContractWrappersExcludingPatterns() throws IOException {
+        final String buildFileContent =
+                "plugins {\n"
+                        + "    id 'org.web3j'\n"
+                        + "}\n"
+                        + "web3j {\n"
+                        + "    generatedPackageName = 'org.web3j.test'\n"
+                        + "    excludedContracts = ['Standard*', 'regex:.*Mock']\n"
+                        + "}\n"
+                        + "sourceSets {\n"
+                        + "    main {\n"
+                        + "        solidity {\n"
+                        + "            srcDir '"
+                        + sourceDir.toAbsolutePath()
+                        + "'\n"
+                        + "            }\n"
+                        + "        }\n"
+                        + "    }\n"
+                        + "repositories {\n"
+                        + "   mavenCentral()\n"
+                        + "   maven {\n"
+                        + "       url 'https://oss.sonatype.org/content/repositories/snapshots'\n"
+                        + "   }\n"
+                        + "}\n";
+
+        Files.write(buildFile, buildFileContent.getBytes());
+
+        final BuildResult success =
+                GradleRunner.create()
+                        .withProjectDir(testProjectDir.toFile())
+                        .withArguments("build")
+                        .withPluginClasspath()
+                        .forwardOutput()
+                        .build();
+        assertNotNull(success.task(":generateContractWrappers"));
+        assertEquals(SUCCESS, success.task(":generateContractWrappers").getOutcome());
+
+        final Path web3jContractsDir =
+                testProjectDir.resolve("build/generated/sources/web3j/main/java");
+        assertTrue(Files.exists(web3jContractsDir.resolve("org/web3j/test/Token.java")));
+        assertFalse(Files.exists(web3jContractsDir.resolve("org/web3j/test/StandardToken.java")));
+    }
+
+    @Test
+    public void generateContractWrappersWithPackageMappings() throws IOException {
+        final String buildFileContent =
+                "plugins {\n"
+                        + "    id 'org.web3j'\n"
+                        + "}\n"
+                        + "web3j {\n"
+                        + "    generatedPackageName = 'org.web3j.test'\n"
+                        + "    packageMappings = ['Token': 'org.web3j.erc20']\n"
+                        + "}\n"
+                        + "sourceSets {\n"
+                        + "    main {\n"
+                        + "        solidity {\n"
+                        + "            srcDir '"
+                        + sourceDir.toAbsolutePath()
+                        + "'\n"
+                        + "            }\n"
+                        + "        }\n"
+                        + "    }\n"
+                        + "repositories {\n"
+                        + "   mavenCentral()\n"
+                        + "   maven {\n"
+                        + "       url 'https://oss.sonatype.org/content/repositories/snapshots'\n"
+                        + "   }\n"
+                        + "}\n";
+
+        Files.write(buildFile, buildFileContent.getBytes());
+
+        final BuildResult success =
+                GradleRunner.create()
+                        .withProjectDir(testProjectDir.toFile())
+                        .withArguments("build")
+                        .withPluginClasspath()
+                        .forwardOutput()
+                        .build();
+        assertNotNull(success.task(":generateContractWrappers"));
+        assertEquals(SUCCESS, success.task(":generateContractWrappers").getOutcome());
+
+        final Path web3jContractsDir =
+                testProjectDir.resolve("build/generated/sources/web3j/main/java");
+        assertTrue(Files.exists(web3jContractsDir.resolve("org/web3j/erc20/Token.java")));
+        assertTrue(Files.exists(web3jContractsDir.resolve("org/web3j/test/StandardToken.java")));
+    }
+
+    @Test
+    public void generateContractWrappersWithNestedPackageMappings() throws IOException {
+        final Path abiDir = testProjectDir.resolve("abi/main");
+        final String abi =
+                "[{\"type\":\"function\",\"name\":\"owner\",\"stateMutability\":\"view\","
+                        + "\"inputs\":[],\"outputs\":[{\"name\":\"\",\"type\":\"address\"}]}]";
+        for (final String contract :
+                new String[] {
+                    "tokens/erc20/Token",
+                    "tokens/erc-721/Nft",
+                    "tokens/mocks/TokenMock",
+                    "dao/Governor",
+                    "core/Registry"
+                }) {
+            Files.createDirectories(abiDir.resolve(contract).getParent());
+            Files.write(abiDir.resolve(contract + ".abi"), abi.getBytes());
+            Files.write(abiDir.resolve(contract + ".bin"), new byte[0]);
+        }
+
+        final String buildFileContent =
+                "plugins {\n"
+                        + "    id 'org.web3j'\n"
+                        + "}\n"
+                        + "web3j {\n"
+                        + "    generatedPackageName = 'org.web3j.{0}'\n"
+                        + "    packageMappings = [\n"
+                        + "        '**/mocks/**': 'org.web3j.test.mocks',\n"
+                        + "        'tokens/**': 'com.mycompany.{1}',\n"
+                        + "        'Governor': 'com.mycompany.governance'\n"
+                        + "    ]\n"
+                        + "}\n"
+                        + "sourceSets.main.solidity.destinationDirectory.set(file('abi/main'))\n"
+                        + "tasks.named('compileSolidity') { enabled = false }\n"
+                        + "repositories {\n"
+                        + "   mavenCentral()\n"
+                        + "   maven {\n"
+                        + "       url 'https://oss.sonatype.org/content/repositories/snapshots'\n"
+                        + "   }\n"
+                        + "}\n";
+
+        Files.write(buildFile, buildFileContent.getBytes());
+
+        final BuildResult success =
+                GradleRunner.create()
+                        .withProjectDir(testProjectDir.toFile())
+                        .withArguments("build")
+                        .withPluginClasspath()
+                        .forwardOutput()
+                        .build();
+        assertNotNull(success.task(":generateContractWrappers"));
+        assertEquals(SUCCESS, success.task(":generateContractWrappers").getOutcome());
+
+        final Path web3jContractsDir =
+                testProjectDir.resolve("build/generated/sources/web3j/main/java");
+        assertTrue(
+                Files.exists(web3jContractsDir.resolve("com/mycompany/tokens/erc20/Token.java")));
+        assertTrue(
+                Files.exists(web3jContractsDir.resolve("com/mycompany/tokens/erc_721/Nft.java")));
+        assertTrue(Files.exists(web3jContractsDir.resolve("org/web3j/test/mocks/TokenMock.java")));
+        assertTrue(
+                Files.exists(web3jContractsDir.resolve("com/mycompany/governance/Governor.java")));
+        assertTrue(Files.exists(web3jContractsDir.resolve("org/web3j/registry/Registry.java")));
+    }
+
+    @Test
+    public void compileContractWrappersSeparately() throws IOException {
+        final String buildFileContent =
+                "plugins {\n"
+                        + "    id 'org.web3j'\n"
+                        + "}\n"
+                        + "web3j {\n"
+                        + "    generatedPackageName = 'org.web3j.test'\n"
+                        + "    separateCompilation = true\n"
+                        + "}\n"
+                        + "sourceSets {\n"
+                        + "    main {\n"
+                        + "        solidity {\n"
+                        + "            srcDir '"
+                        + sourceDir.toAbsolutePath()
+                        + "'\n"
+                        + "            }\n"
+                        + "        }\n"
+                        + "    }\n"
+                        + "repositories {\n"
+                        + "   mavenCentral()\n"
+                        + "   maven {\n"
+                        + "       url 'https://oss.sonatype.org/content/repositories/snapshots'\n"
+                        + "   }\n"
+                        + "}\n";
+
+        Files.write(buildFile, buildFileContent.getBytes());
+
+        final BuildResult success =
+                GradleRunner.create()
+                        .withProjectDir(testProjectDir.toFile())
+                        .withArguments("build")
+                        .withPluginClasspath()
+                        .forwardOutput()
+                        .build();
+        assertNotNull(success.task(":compileContractWrappers"));
+        assertEquals(SUCCESS, success.task(":compileContractWrappers").getOutcome());
+        assertEquals(TaskOutcome.NO_SOURCE, success.task(":compileJava").getOutcome());
+        final Path web3jClassesDir = testProjectDir.resolve("build/classes/web3j/main");
+        assertTrue(Files.exists(web3jClassesDir.resolve("org/web3j/test/Token.class")));
+    }
+
+    @Test
+    public void compileContractWrappersSeparatelyForKotlin() throws IOException {
+        final Path abiDir = testProjectDir.resolve("abi/main");
+        Files.createDirectories(abiDir);
+        Files.write(
+                abiDir.resolve("Registry.abi"),
+                ("[{\"type\":\"function\",\"name\":\"owner\",\"stateMutability\":\"view\","
+                                + "\"inputs\":[],"
+                                + "\"outputs\":[{\"name\":\"\",\"type\":\"address\"}]}]")
+                        .getBytes());
+        Files.write(abiDir.resolve("Registry.bin"), new byte[0]);
+
+        final Path kotlinDir = testProjectDir.resolve("src/main/kotlin/org/web3j/test");
+        Files.createDirectories(kotlinDir);
+        Files.write(
+                kotlinDir.resolve("RegistryOwner.kt"),
+                ("package org.web3j.test\n\n"
+                                + "import org.web3j.protocol.Web3j\n"
+                                + "import org.web3j.tx.ReadonlyTransactionManager\n"
+                                + "import org.web3j.tx.gas.DefaultGasProvider\n\n"
+                                + "fun registryOwner(web3j: Web3j, address: String): String =\n"
+                                + "    Registry.load(\n"
+                                + "        address,\n"
+                                + "        web3j,\n"
+                                + "        ReadonlyTransactionManager(web3j, address),\n"
+                                + "        DefaultGasProvider()\n"
+                                + "    ).owner().send()\n")
+                        .getBytes());
+
+        final String buildFileContent =
+                "plugins {\n"
+                        + "    id 'org.jetbrains.kotlin.jvm' version '1.9.24'\n"
+                        + "    id 'org.web3j'\n"
+                        + "}\n"
+                        + "web3j {\n"
+                        + "    generatedPackageName = 'org.web3j.test'\n"
+                        + "    separateCompilation = true\n"
+                        + "}\n"
+                        + "sourceSets.main.solidity.destinationDirectory.set(file('abi/main'))\n"
+                        + "tasks.named('compileSolidity') { enabled = false }\n"
+                        + "repositories {\n"
+                        + "   mavenCentral()\n"
+                        + "   maven {\n"
+                        + "       url 'https://oss.sonatype.org/content/repositories/snapshots'\n"
+                        + "   }\n"
+                        + "}\n";
+
+        Files.write(buildFile, buildFileContent.getBytes());
+
+        final BuildResult success =
+                GradleRunner.create()
+                        .withProjectDir(testProjectDir.toFile())
+                        .withArguments("build")
+                        .withPluginClasspath()
+                        .forwardOutput()
+                        .build();
+        assertNotNull(success.task(":compileContractWrappers"));
+        assertEquals(SUCCESS, success.task(":compileContractWrappers").getOutcome());
+        assertNotNull(success.task(":compileKotlin"));
+        assertEquals(SUCCESS, success.task(":compileKotlin").getOutcome());
+
+        // Kotlin only reads the compiled wrapper classes, not their Java sources
+        assertEquals(TaskOutcome.NO_SOURCE, success.task(":compileJava").getOutcome());
+        assertTrue(
+                Files.exists(
+                        testProjectDir.resolve(
+                                "build/classes/kotlin/main/org/web3j/test/RegistryOwnerKt.class")));
+        assertTrue(
+                Files.exists(
+                        testProjectDir.resolve(
+                                "build/classes/web3j/main/org/web3j/test/Registry.class")));
+    }
+
+    @Test
+    public void generateAbiOnlyContractWrappers() throws IOException {
+        final String buildFileContent =
+                "plugins {\n"
+                        + "    id 'org.web3j'\n"
+                        + "}\n"
+                        + "web3j {\n"
+                        + "    generatedPackageName = 'org.web3j.test'\n"
+                        + "    abiOnlyContracts = ['Standard*']\n"
+                        + "}\n"
+                        + "sourceSets {\n"
+                        + "    main {\n"
+                        + "        solidity {\n"
+                        + "            srcDir '"
+                        + sourceDir.toAbsolutePath()
+                        + "'\n"
+                        + "            }\n"
+                        + "        }\n"
+                        + "    }\n"
+                        + "repositories {\n"
+                        + "   mavenCentral()\n"
+                        + "   maven {\n"
+                        + "       url 'https://oss.sonatype.org/content/repositories/snapshots'\n"
+                        + "   }\n"
+                        + "}\n";
+
+        Files.write(buildFile, buildFileContent.getBytes());
+
+        final BuildResult success =
+                GradleRunner.create()
+                        .withProjectDir(testProjectDir.toFile())
+                        .withArguments("build")
+                        .withPluginClasspath()
+                        .forwardOutput()
+                        .build();
+        assertNotNull(success.task(":generateContractWrappers"));
+        assertEquals(SUCCESS, success.task(":generateContractWrappers").getOutcome());
+
+        final Path web3jContractsDir =
+                testProjectDir.resolve("build/generated/sources/web3j/main/java");
+        final String standardToken =
+                new String(
+                        Files.readAllBytes(
+                                web3jContractsDir.resolve("org/web3j/test/StandardToken.java")));
+        assertFalse(standardToken.contains(" deploy("));
+        assertTrue(standardToken.contains(" load("));
+    }
+
+    @Test
+    public void generateContractWrappersWithSharedStructs() throws IOException {
+        final Path abiDir = testProjectDir.resolve("abi/main");
+        Files.createDirectories(abiDir);
+        final String order = "address maker,uint256 amount";
+        Files.write(abiDir.resolve("OrderBook.abi"), orderAbi("place", order).getBytes());
+        Files.write(abiDir.resolve("OrderBook.bin"), new byte[0]);
+        Files.write(abiDir.resolve("Exchange.abi"), orderAbi("fill", order).getBytes());
+        Files.write(abiDir.resolve("Exchange.bin"), new byte[0]);
+
+        final String buildFileContent =
+                "plugins {\n"
+                        + "    id 'org.web3j'\n"
+                        + "}\n"
+                        + "web3j {\n"
+                        + "    generatedPackageName = 'org.web3j.test'\n"
+                        + "    sharedStructsPackage = 'org.web3j.structs'\n"
+                        + "}\n"
+                        + "sourceSets.main.solidity.destinationDirectory.set(file('abi/main'))\n"
+                        + "tasks.named('compileSolidity') { enabled = false }\n"
+                        + "repositories {\n"
+                        + "   mavenCentral()\n"
+                        + "   maven {\n"
+                        + "       url 'https://oss.sonatype.org/content/repositories/snapshots'\n"
+                        + "   }\n"
+                        + "}\n";
+
+        Files.write(buildFile, buildFileContent.getBytes());
+
+        final GradleRunner gradleRunner =
+                GradleRunner.create()
+                        .withProjectDir(testProjectDir.toFile())
+                        .withArguments("build")
+                        .withPluginClasspath()
+                        .forwardOutput();
+
+        final BuildResult success = gradleRunner.build();
+        assertNotNull(success.task(":generateContractWrappers"));
+        assertEquals(SUCCESS, success.task(":generateContractWrappers").getOutcome());
+        assertNotNull(success.task(":compileJava"));
+        assertEquals(SUCCESS, success.task(":compileJava").getOutcome());
+
+        // The struct is generated once and referenced by both wrappers
+        final Path web3jContractsDir =
+                testProjectDir.resolve("build/generated/sources/web3j/main/java");
+        final Path orderStruct = web3jContractsDir.resolve("org/web3j/structs/lib/Order.java");
+        assertTrue(Files.exists(orderStruct));
+        assertTrue(
+                new String(Files.readAllBytes(orderStruct))
+                        .contains("Lib.Order(address maker,uint256 amount)"));
+        for (final String contract : new String[] {"OrderBook", "Exchange"}) {
+            final String wrapper =
+                    new String(
+                            Files.readAllBytes(
+                                    web3jContractsDir.resolve(
+                                            "org/web3j/test/" + contract + ".java")));
+            assertTrue(wrapper.contains("import org.web3j.structs.lib.Order;"));
+            assertFalse(wrapper.contains("class Order "));
+        }
+
+        // Changing the struct of a single contract clashes with the unchanged one
+        Files.write(
+                abiDir.resolve("Exchange.abi"),
+                orderAbi("fill", order + ",uint256 expiry").getBytes());
+        final BuildResult clash = gradleRunner.buildAndFail();
+        assertTrue(
+                clash.getOutput()
+                        .contains("Struct org.web3j.structs.lib.Order has different components"));
+
+        // Changing it in every contract regenerates the shared struct
+        Files.write(
+                abiDir.resolve("OrderBook.abi"),
+                orderAbi("place", order + ",uint256 expiry").getBytes());
+        final BuildResult changed = gradleRunner.build();
+        assertNotNull(changed.task(":generateContractWrappers"));
+        assertEquals(SUCCESS, changed.task(":generateContractWrappers").getOutcome());
+        assertTrue(
+                new String(Files.readAllBytes(orderStruct))
+                        .contains("Lib.Order(address maker,uint256 amount,uint256 expiry)"));
+    }
+
+    @Test
+    public void generateContractWrappersWithConflictingSharedStructs() throws IOException {
+        final Path abiDir = testProjectDir.resolve("abi/main");
+        Files.createDirectories(abiDir);
+        Files.write(
+                abiDir.resolve("OrderBook.abi"),
+                orderAbi("place", "address maker,uint256 amount").getBytes());
+        Files.write(abiDir.resolve("OrderBook.bin"), new byte[0]);
+        Files.write(abiDir.resolve("Exchange.abi"), orderAbi("fill", "address maker").getBytes());
+        Files.write(abiDir.resolve("Exchange.bin"), new byte[0]);
+
+        final String buildFileContent =
+                "plugins {\n"
+                        + "    id 'org.web3j'\n"
+                        + "}\n"
+                        + "web3j {\n"
+                        + "    generatedPackageName = 'org.web3j.test'\n"
+                        + "    sharedStructsPackage = 'org.web3j.structs'\n"
+                        + "}\n"
+                        + "sourceSets.main.solidity.destinationDirectory.set(file('abi/main'))\n"
+                        + "tasks.named('compileSolidity') { enabled = false }\n"
+                        + "repositories {\n"
+                        + "   mavenCentral()\n"
+                        + "   maven {\n"
+                        + "       url 'https://oss.sonatype.org/content/repositories/snapshots'\n"
+                        + "   }\n"
+                        + "}\n";
+
+        Files.write(buildFile, buildFileContent.getBytes());
+
+        final BuildResult failure =
+                GradleRunner.create()
+                        .withProjectDir(testProjectDir.toFile())
+                        .withArguments("build")
+                        .withPluginClasspath()
+                        .forwardOutput()
+                        .buildAndFail();
+        assertTrue(
+                failure.getOutput()
+                        .contains("Struct org.web3j.structs.lib.Order has different components"));
+    }
+
+    @Test
+    public void generateContractCodecs() throws IOException {
+        final String buildFileContent =
+                "plugins {\n"
+                        + "    id 'org.web3j'\n"
+                        + "}\n"
+                        + "web3j {\n"
+                        + "    generatedPackageName = 'org.web3j.test'\n"
+                        + "    generateCodecs = true\n"
+                        + "}\n"
+                        + "sourceSets {\n"
+                        + "    main {\n"
+                        + "        solidity {\n"
+                        + "            srcDir '"
+                        + sourceDir.toAbsolutePath()
+                        + "'\n"
+                        + "            }\n"
+                        + "        }\n"
+                        + "    }\n"
+                        + "repositories {\n"
+                        + "   mavenCentral()\n"
+                        + "   maven {\n"
+                        + "       url 'https://oss.sonatype.org/content/repositories/snapshots'\n"
+                        + "   }\n"
+                        + "}\n";
+
+        Files.write(buildFile, buildFileContent.getBytes());
+
+        final BuildResult success =
+                GradleRunner.create()
+                        .withProjectDir(testProjectDir.toFile())
+                        .withArguments("build")
+                        .withPluginClasspath()
+                        .forwardOutput()
+                        .build();
+        assertNotNull(success.task(":generateContractWrappers"));
+        assertEquals(SUCCESS, success.task(":generateContractWrappers").getOutcome());
+
+        final Path tokenCodec =
+                testProjectDir.resolve(
+                        "build/generated/sources/web3j/main/java/org/web3j/test/TokenCodec.java");
+        assertTrue(Files.exists(tokenCodec));
+        final String codec = new String(Files.readAllBytes(tokenCodec));
+        assertTrue(codec.contains("SELECTOR_TRANSFER = 0xa9059cbb;"));
+        assertTrue(codec.contains("public static int encodeTransfer(final byte[] buffer"));
+    }
+
+    @Test
+    public void generateContractEventDispatchers() throws IOException {
+        final String buildFileContent =
+                "plugins {\n"
+                        + "    id 'org.web3j'\n"
+                        + "}\n"
+                        + "web3j {\n"
+                        + "    generatedPackageName = 'org.web3j.test'\n"
+                        + "    generateEventDispatchers = true\n"
+                        + "}\n"
+                        + "sourceSets {\n"
+                        + "    main {\n"
+                        + "        solidity {\n"
+                        + "            srcDir '"
+                        + sourceDir.toAbsolutePath()
+                        + "'\n"
+                        + "            }\n"
+                        + "        }\n"
+                        + "    }\n"
+                        + "repositories {\n"
+                        + "   mavenCentral()\n"
+                        + "   maven {\n"
+                        + "       url 'https://oss.sonatype.org/content/repositories/snapshots'\n"
+                        + "   }\n"
+                        + "}\n";
+
+        Files.write(buildFile, buildFileContent.getBytes());
+
+        final BuildResult success =
+                GradleRunner.create()
+                        .withProjectDir(testProjectDir.toFile())
+                        .withArguments("build")
+                        .withPluginClasspath()
+                        .forwardOutput()
+                        .build();
+        assertNotNull(success.task(":generateContractWrappers"));
+        assertEquals(SUCCESS, success.task(":generateContractWrappers").getOutcome());
+
+        final Path tokenEvents =
+                testProjectDir.resolve(
+                        "build/generated/sources/web3j/main/java/org/web3j/test/TokenEvents.java");
+        assertTrue(Files.exists(tokenEvents));
+        final String events = new String(Files.readAllBytes(tokenEvents));
+        assertTrue(
+                events.contains(
+                        "\"0xddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef\""));
+        assertTrue(events.contains("case TOPIC_TRANSFER:"));
+        assertFalse(events.contains("EventFromLog"));
+        assertTrue(events.contains("public static Token.TransferEventResponse decodeTransfer("));
+    }
+
+    @Test
+    public void generateContractBatchReaders() throws IOException {
+        final String buildFileContent =
+                "plugins {\n"
+                        + "    id 'org.web3j'\n"
+                        + "}\n"
+                        + "web3j {\n"
+                        + "    generatedPackageName = 'org.web3j.test'\n"
+                        + "    generateBatchReaders = true\n"
+                        + "}\n"
+                        + "sourceSets {\n"
+                        + "    main {\n"
+                        + "        solidity {\n"
+                        + "            srcDir '"
+                        + sourceDir.toAbsolutePath()
+                        + "'\n"
+                        + "            }\n"
+                        + "        }\n"
+                        + "    }\n"
+                        + "repositories {\n"
+                        + "   mavenCentral()\n"
+                        + "   maven {\n"
+                        + "       url 'https://oss.sonatype.org/content/repositories/snapshots'\n"
+                        + "   }\n"
+                        + "}\n";
+
+        Files.write(buildFile, buildFileContent.getBytes());
+
+        final BuildResult success =
+                GradleRunner.create()
+                        .withProjectDir(testProjectDir.toFile())
+                        .withArguments("build")
+                        .withPluginClasspath()
+                        .forwardOutput()
+                        .build();
+        assertNotNull(success.task(":generateContractWrappers"));
+        assertEquals(SUCCESS, success.task(":generateContractWrappers").getOutcome());
+
+        final Path web3jContractsDir =
+                testProjectDir.resolve("build/generated/sources/web3j/main/java");
+        final Path tokenReader = web3jContractsDir.resolve("org/web3j/test/TokenBatchReader.java");
+        assertTrue(Files.exists(tokenReader));
+        final String reader = new String(Files.readAllBytes(tokenReader));
+        // Results have the native types of the wrapper
+        assertTrue(reader.contains("public Call<BigInteger> addBalanceOf(final Address _owner)"));
+        assertFalse(reader.contains("addTransfer("));
+    }
+
+    @Test
+    public void generateContractWrappersWithPrimitiveIntegers() throws IOException {
+        final Path abiDir = testProjectDir.resolve("abi/main");
+        Files.createDirectories(abiDir);
+        Files.write(
+                abiDir.resolve("Counter.abi"),
+                ("["
+                                + counterFunction("count", "int32")
+                                + ","
+                                + counterFunction("total", "int64")
+                                + ","
+                                + counterFunction("decimals", "uint8")
+                                + ","
+                                + counterFunction("supply", "uint64")
+                                + ",{\"type\":\"function\",\"name\":\"lock\","
+                                + "\"stateMutability\":\"nonpayable\",\"outputs\":[],"
+                                + "\"inputs\":[{\"name\":\"until\",\"type\":\"uint32\"},"
+                                + "{\"name\":\"strict\",\"type\":\"bool\"}]},"
+                                + "{\"type\":\"event\",\"name\":\"Locked\",\"anonymous\":false,"
+                                + "\"inputs\":[{\"name\":\"until\",\"type\":\"uint32\","
+                                + "\"indexed\":true},{\"name\":\"count\",\"type\":\"int16\","
+                                + "\"indexed\":false}]}"
+                                + "]")
+                        .getBytes());
+        Files.write(abiDir.resolve("Counter.bin"), new byte[0]);
+
+        final String buildFileContent =
+                "plugins {\n"
+                        + "    id 'org.web3j'\n"
+                        + "}\n"
+                        + "web3j {\n"
+                        + "    generatedPackageName = 'org.web3j.test'\n"
+                        + "    primitiveIntegers = true\n"
+                        + "    generateEventDispatchers = true\n"
+                        + "}\n"
+                        + "sourceSets.main.solidity.destinationDirectory.set(file('abi/main'))\n"
+                        + "tasks.named('compileSolidity') { enabled = false }\n"
+                        + "repositories {\n"
+                        + "   mavenCentral()\n"
+                        + "   maven {\n"
+                        + "       url 'https://oss.sonatype.org/content/repositories/snapshots'\n"
+                        + "   }\n"
+                        + "}\n";
+
+        Files.write(buildFile, buildFileContent.getBytes());
+
+        final BuildResult success =
+                GradleRunner.create()
+                        .withProjectDir(testProjectDir.toFile())
+                        .withArguments("build")
+                        .withPluginClasspath()
+                        .forwardOutput()
+                        .build();
+        assertNotNull(success.task(":generateContractWrappers"));
+        assertEquals(SUCCESS, success.task(":generateContractWrappers").getOutcome());
+        assertEquals(SUCCESS, success.task(":compileJava").getOutcome());
+
+        final String counter =
+                new String(
+                        Files.readAllBytes(
+                                testProjectDir.resolve(
+                                        "build/generated/sources/web3j/main/java"
+                                                + "/org/web3j/test/Counter.java")));
+        assertTrue(counter.contains("public RemoteFunctionCall<Integer> count()"));
+        assertTrue(counter.contains("public RemoteFunctionCall<Long> total()"));
+        assertTrue(counter.contains("public RemoteFunctionCall<Integer> decimals()"));
+        // Unsigned 64-bit integers have no Java primitive type of the same range
+        assertTrue(counter.contains("public RemoteFunctionCall<BigInteger> supply()"));
+        assertTrue(counter.contains("lock(long until, boolean strict)"));
+        assertTrue(counter.contains("public long until;"));
+        assertTrue(counter.contains("public int count;"));
+    }
+
+    @Test
+    public void generateContractWrappersWithBytecodeResources() throws IOException {
+        final String buildFileContent =
+                "plugins {\n"
+                        + "    id 'org.web3j'\n"
+                        + "}\n"
+                        + "web3j {\n"
+                        + "    generatedPackageName = 'org.web3j.test'\n"
+                        + "    bytecodeResources = true\n"
+                        + "}\n"
+                        + "sourceSets {\n"
+                        + "    main {\n"
+                        + "        solidity {\n"
+                        + "            srcDir '"
+                        + sourceDir.toAbsolutePath()
+                        + "'\n"
+                        + "            }\n"
+                        + "        }\n"
+                        + "    }\n"
+                        + "repositories {\n"
+                        + "   mavenCentral()\n"
+                        + "   maven {\n"
+                        + "       url 'https://oss.sonatype.org/content/repositories/snapshots'\n"
+                        + "   }\n"
+                        + "}\n";
+
+        Files.write(buildFile, buildFileContent.getBytes());
+
+        final BuildResult success =
+                GradleRunner.create()
+                        .withProjectDir(testProjectDir.toFile())
+                        .withArguments("build")
+                        .withPluginClasspath()
+                        .forwardOutput()
+                        .build();
+        assertNotNull(success.task(":generateContractWrappers"));
+        assertEquals(SUCCESS, success.task(":generateContractWrappers").getOutcome());
+
+        final Path web3jContractsDir =
+                testProjectDir.resolve("build/generated/sources/web3j/main/java");
+        final String wrapper =
+                new String(
+                        Files.readAllBytes(
+                                web3jContractsDir.resolve("org/web3j/test/StandardToken.java")));
+        assertFalse(wrapper.contains("String BINARY ="));
+        assertTrue(wrapper.contains("loadBinary()"));
+        // Loading a deployed contract does not need the resource
+        assertTrue(wrapper.contains("super(BIN_NOT_PROVIDED, "));
+        assertTrue(
+                Files.exists(
+                        testProjectDir.resolve(
+                                "build/resources/main/org/web3j/test/StandardToken.bin.gz")));
+    }
+
+    @Test
+    public void generateContractWrappersIncrementally() throws IOException {
+        final Path solidityDir = testProjectDir.resolve("src/main/solidity");
+        Files.createDirectories(solidityDir);
+        Files.copy(sourceDir.resolve("Token.sol"), solidityDir.resolve("Token.sol"));
+        Files.copy(
+                sourceDir.resolve("StandardToken.sol"), solidityDir.resolve("StandardToken.sol"));
+
+        final String buildFileContent =
+                "plugins {\n"
+                        + "    id 'org.web3j'\n"
+                        + "}\n"
+                        + "web3j {\n"
+                        + "    generatedPackageName = 'org.web3j.test'\n"
+                        + "}\n"
+                        + "repositories {\n"
+                        + "   mavenCentral()\n"
+                        + "   maven {\n"
+                        + "       url 'https://oss.sonatype.org/content/repositories/snapshots'\n"
+                        + "   }\n"
+                        + "}\n";
+
+        Files.write(buildFile, buildFileContent.getBytes());
+
+        final GradleRunner gradleRunner =
+                GradleRunner.create()
+                        .withProjectDir(testProjectDir.toFile())
+                        .withArguments("build")
+                        .withPluginClasspath()
+                        .forwardOutput();
+
+        final BuildResult success = gradleRunner.build();
+        assertNotNull(success.task(":generateContractWrappers"));
+        assertEquals(SUCCESS, success.task(":generateContractWrappers").getOutcome());
+
+        final Path web3jContractsDir =
+                testProjectDir.resolve("build/generated/sources/web3j/main/java");
+        final Path tokenContract = web3jContractsDir.resolve("org/web3j/test/Token.java");
+        final Path standardTokenContract =
+                web3jContractsDir.resolve("org/web3j/test/StandardToken.java");
+        assertTrue(Files.exists(tokenContract));
+        assertTrue(Files.exists(standardTokenContract));
+
+        final long tokenLastModified = Files.getLastModifiedTime(tokenContract).toMillis();
+
+        // Changing StandardToken must not regenerate the Token wrapper
+        Files.write(
+                solidityDir.resolve("StandardToken.sol"),
+                "\ncontract StandardTokenMock is StandardToken {}\n".getBytes(),
+                StandardOpenOption.APPEND);
+
+        final BuildResult incremental = gradleRunner.build();
+        assertNotNull(incremental.task(":generateContractWrappers"));
+        assertEquals(SUCCESS, incremental.task(":generateContractWrappers").getOutcome());
+        assertTrue(
+                Files.exists(web3jContractsDir.resolve("org/web3j/test/StandardTokenMock.java")));
+        assertEquals(tokenLastModified, Files.getLastModifiedTime(tokenContract).toMillis());
+
+        // Removing a contract deletes its stale wrapper
+        Files.write(
+                solidityDir.resolve("StandardToken.sol"),
+                Files.readAllBytes(sourceDir.resolve("StandardToken.sol")));
+
+        final BuildResult removed = gradleRunner.build();
+        assertNotNull(removed.task(":generateContractWrappers"));
+        assertEquals(SUCCESS, removed.task(":generateContractWrappers").getOutcome());
+        assertFalse(
+                Files.exists(web3jContractsDir.resolve("org/web3j/test/StandardTokenMock.java")));
+        assertTrue(Files.exists(standardTokenContract));
+    }
+
+    @Test
+    public void generateContractWrappersKeepsUnchangedFiles()
+            throws IOException, URISyntaxException {
+        final Path solcOutputDir = testProjectDir.resolve("solc/main");
+        Files.createDirectories(solcOutputDir);
+        final Path solcOutput = solcOutputDir.resolve("standard-output.json");
+        Files.copy(
+                Paths.get(
+                        getClass()
+                                .getClassLoader()
+                                .getResource("solc/standard-output.json")
+                                .toURI()),
+                solcOutput);
+
+        final String buildFileContent =
+                "plugins {\n"
+                        + "    id 'org.web3j'\n"
+                        + "}\n"
+                        + "web3j {\n"
+                        + "    generatedPackageName = 'org.web3j.test'\n"
+                        + "    solcJsonOutput = true\n"
+                        + "}\n"
+                        + "sourceSets.main.solidity.destinationDirectory.set(file('solc/main'))\n"
+                        + "tasks.named('compileSolidity') { enabled = false }\n"
+                        + "repositories {\n"
+                        + "   mavenCentral()\n"
+                        + "   maven {\n"
+                        + "       url 'https://oss.sonatype.org/content/repositories/snapshots'\n"
+                        + "   }\n"
+                        + "}\n";
+
+        Files.write(buildFile, buildFileContent.getBytes());
+
+        final GradleRunner gradleRunner =
+                GradleRunner.create()
+                        .withProjectDir(testProjectDir.toFile())
+                        .withArguments("build")
+                        .withPluginClasspath()
+                        .forwardOutput();
+
+        final BuildResult success = gradleRunner.build();
+        assertNotNull(success.task(":generateContractWrappers"));
+        assertEquals(SUCCESS, success.task(":generateContractWrappers").getOutcome());
+
+        final Path greeterContract =
+                testProjectDir.resolve(
+                        "build/generated/sources/web3j/main/java/org/web3j/test/Greeter.java");
+        assertTrue(Files.exists(greeterContract));
+
+        // A time in the past, so a rewrite is detected regardless of the clock resolution
+        final FileTime lastModified = FileTime.fromMillis(System.currentTimeMillis() - 3_600_000);
+        Files.setLastModifiedTime(greeterContract, lastModified);
+
+        // Changing the solc output bytes regenerates its contracts, with identical output
+        Files.write(solcOutput, "\n".getBytes(), StandardOpenOption.APPEND);
+
+        final BuildResult regenerated = gradleRunner.build();
+        assertNotNull(regenerated.task(":generateContractWrappers"));
+        assertEquals(SUCCESS, regenerated.task(":generateContractWrappers").getOutcome());
+        assertEquals(lastModified, Files.getLastModifiedTime(greeterContract));
+        assertNotNull(regenerated.task(":compileJava"));
+        assertEquals(UP_TO_DATE, regenerated.task(":compileJava").getOutcome());
+
+        final Path report =
+                testProjectDir.resolve("build/reports/web3j/generateContractWrappers.json");
+        assertTrue(new String(Files.readAllBytes(report)).contains("\"bytesWritten\" : 0"));
+    }
+
+    @Test
+    public void generateContractWrappersInForkedWorkers() throws IOException {
+        final String buildFileContent =
+                "plugins {\n"
+                        + "    id 'org.web3j'\n"
+                        + "}\n"
+                        + "web3j {\n"
+                        + "    generatedPackageName = 'org.web3j.test'\n"
+                        + "    workerBatchSize = 2\n"
+                        + "    workerIsolation = 'process'\n"
+                        + "    workerMaxHeapSize = '256m'\n"
+                        + "}\n"
+                        + "sourceSets {\n"
+                        + "    main {\n"
+                        + "        solidity {\n"
+                        + "            srcDir '"
+                        + sourceDir.toAbsolutePath()
+                        + "'\n"
+                        + "            }\n"
+                        + "        }\n"
+                        + "    }\n"
+                        + "repositories {\n"
+                        + "   mavenCentral()\n"
+                        + "   maven {\n"
+                        + "       url 'https://oss.sonatype.org/content/repositories/snapshots'\n"
+                        + "   }\n"
+                        + "}\n";
+
+        Files.write(buildFile, buildFileContent.getBytes());
+
+        final GradleRunner gradleRunner =
+                GradleRunner.create()
+                        .withProjectDir(testProjectDir.toFile())
+                        .withArguments("build", "--info")
+                        .withPluginClasspath()
+                        .forwardOutput();
+
+        final BuildResult success = gradleRunner.build();
+        assertNotNull(success.task(":generateContractWrappers"));
+        assertEquals(SUCCESS, success.task(":generateContractWrappers").getOutcome());
+
+        // Both contracts are generated by a single action in a forked worker daemon
+        assertTrue(success.getOutput().contains("Generating 2 contract wrappers in batches of 2"));
+        assertTrue(success.getOutput().contains("Started Gradle worker daemon"));
+        final Path resultsDir =
+                testProjectDir.resolve("build/tmp/generateContractWrappers/results");
+        assertTrue(Files.exists(resultsDir.resolve("batch-0.manifest")));
+        assertFalse(Files.exists(resultsDir.resolve("batch-1.manifest")));
+
+        final Path web3jContractsDir =
+                testProjectDir.resolve("build/generated/sources/web3j/main/java");
+        assertTrue(Files.exists(web3jContractsDir.resolve("org/web3j/test/StandardToken.java")));
+        assertTrue(Files.exists(web3jContractsDir.resolve("org/web3j/test/Token.java")));
+
+        final Path report =
+                testProjectDir.resolve("build/reports/web3j/generateContractWrappers.json");
+        assertTrue(Files.exists(report));
+        assertTrue(new String(Files.readAllBytes(report)).contains("\"contracts\" : 2"));
+    }
+
+    @Test
+    public void generateContractWrappersFromSharedCache() throws IOException {
+        final Path cacheDir = Files.createTempDirectory("generationCacheDir");
+        final String buildFileContent =
+                "plugins {\n"
+                        + "    id 'org.web3j'\n"
+                        + "}\n"
+                        + "web3j {\n"
+                        + "    generatedPackageName = 'org.web3j.test'\n"
+                        + "    generationCacheDir = '"
+                        + cacheDir.toAbsolutePath()
+                        + "'\n"
+                        + "    useNativeJavaTypes = !project.hasProperty('web3jTypes')\n"
+                        + "}\n"
+                        + "sourceSets {\n"
+                        + "    main {\n"
+                        + "        solidity {\n"
+                        + "            srcDir '"
+                        + sourceDir.toAbsolutePath()
+                        + "'\n"
+                        + "            }\n"
+                        + "        }\n"
+                        + "    }\n"
+                        + "repositories {\n"
+                        + "   mavenCentral()\n"
+                        + "   maven {\n"
+                        + "       url 'https://oss.sonatype.org/content/repositories/snapshots'\n"
+                        + "   }\n"
+                        + "}\n";
+
+        Files.write(buildFile, buildFileContent.getBytes());
+        final Path otherProjectDir = Files.createTempDirectory("otherProjectDir");
+        Files.write(otherProjectDir.resolve("build.gradle"), buildFileContent.getBytes());
+
+        final BuildResult first =
+                GradleRunner.create()
+                        .withProjectDir(testProjectDir.toFile())
+                        .withArguments("generateContractWrappers")
+                        .withPluginClasspath()
+                        .forwardOutput()
+                        .build();
+        assertNotNull(first.task(":generateContractWrappers"));
+        assertEquals(SUCCESS, first.task(":generateContractWrappers").getOutcome());
+        final Path report =
+                testProjectDir.resolve("build/reports/web3j/generateContractWrappers.json");
+        assertTrue(new String(Files.readAllBytes(report)).contains("\"cached\" : 0"));
+
+        // Another project with the same contracts and options reuses the cached wrappers
+        final BuildResult cached =
+                GradleRunner.create()
+                        .withProjectDir(otherProjectDir.toFile())
+                        .withArguments("generateContractWrappers")
+                        .withPluginClasspath()
+                        .forwardOutput()
+                        .build();
+        assertNotNull(cached.task(":generateContractWrappers"));
+        assertEquals(SUCCESS, cached.task(":generateContractWrappers").getOutcome());
+        final Path otherReport =
+                otherProjectDir.resolve("build/reports/web3j/generateContractWrappers.json");
+        assertTrue(new String(Files.readAllBytes(otherReport)).contains("\"cached\" : 2"));
+        final Path web3jContractsDir =
+                otherProjectDir.resolve("build/generated/sources/web3j/main/java");
+        assertTrue(Files.exists(web3jContractsDir.resolve("org/web3j/test/Token.java")));
+
+        // Changing a generator option misses the cache
+        final BuildResult changed =
+                GradleRunner.create()
+                        .withProjectDir(otherProjectDir.toFile())
+                        .withArguments("generateContractWrappers", "-Pweb3jTypes")
+                        .withPluginClasspath()
+                        .forwardOutput()
+                        .build();
+        assertNotNull(changed.task(":generateContractWrappers"));
+        assertEquals(SUCCESS, changed.task(":generateContractWrappers").getOutcome());
+        assertTrue(new String(Files.readAllBytes(otherReport)).contains("\"cached\" : 0"));
+    }
+
+    @Test
+    public void generateLargeContractWrappersWithLowMemory() throws IOException {
+        final Path abiDir = testProjectDir.resolve("abi/main");
+        Files.createDirectories(abiDir);
+
+        final String function =
+                "{\"type\":\"function\",\"name\":\"balanceOf\",\"stateMutability\":\"view\","
+                        + "\"inputs\":[{\"name\":\"owner\",\"type\":\"address\"}],"
+                        + "\"outputs\":[{\"name\":\"\",\"type\":\"uint256\"}]}";
+
+        // ABI files over the configured size, padded with whitespace to keep the wrapper small
+        final StringBuilder largeAbi = new StringBuilder("[").append(function);
+        while (largeAbi.length() <= 4096) {
+            largeAbi.append(" \n");
+        }
+        largeAbi.append("]");
+        Files.write(abiDir.resolve("Large.abi"), largeAbi.toString().getBytes());
+        Files.write(abiDir.resolve("Large.bin"), "6080604052".getBytes());
+        Files.write(abiDir.resolve("Small.abi"), ("[" + function + "]").getBytes());
+        Files.write(abiDir.resolve("Small.bin"), "6080604052".getBytes());
+
+        final String buildFileContent =
+                "plugins {\n"
+                        + "    id 'org.web3j'\n"
+                        + "}\n"
+                        + "web3j {\n"
+                        + "    generatedPackageName = 'org.web3j.test'\n"
+                        + "    lowMemoryGeneration = true\n"
+                        + "    lowMemoryAbiSize = 4096\n"
+                        + "    workerBatchSize = 10\n"
+                        + "}\n"
+                        + "sourceSets.main.solidity.destinationDirectory.set(file('abi/main'))\n"
+                        + "tasks.named('compileSolidity') { enabled = false }\n"
+                        + "repositories {\n"
+                        + "   mavenCentral()\n"
+                        + "   maven {\n"
+                        + "       url 'https://oss.sonatype.org/content/repositories/snapshots'\n"
+                        + "   }\n"
+                        + "}\n";
+
+        Files.write(buildFile, buildFileContent.getBytes());
+
+        final BuildResult success =
+                GradleRunner.create()
+                        .withProjectDir(testProjectDir.toFile())
+                        .withArguments("generateContractWrappers", "--info")
+                        .withPluginClasspath()
+                        .forwardOutput()
+                        .build();
+        assertNotNull(success.task(":generateContractWrappers"));
+        assertEquals(SUCCESS, success.task(":generateContractWrappers").getOutcome());
+
+        // The large contract is generated alone before the others, streaming its ABI from disk
+        assertTrue(
+                success.getOutput()
+                        .contains("Generating 1 large contract wrappers before other contracts"));
+        assertTrue(success.getOutput().contains("Generating 1 contract wrappers in batches of 10"));
+        final Path resultsDir =
+                testProjectDir.resolve("build/tmp/generateContractWrappers/results");
+        assertTrue(Files.exists(resultsDir.resolve("batch-0.manifest")));
+        assertTrue(Files.exists(resultsDir.resolve("batch-1.manifest")));
+        assertTrue(
+                new String(Files.readAllBytes(resultsDir.resolve("batch-0.manifest")))
+                        .contains("Large="));
+
+        final Path web3jContractsDir =
+                testProjectDir.resolve("build/generated/sources/web3j/main/java");
+        final Path largeContract = web3jContractsDir.resolve("org/web3j/test/Large.java");
+        assertTrue(Files.exists(largeContract));
+        assertTrue(new String(Files.readAllBytes(largeContract)).contains("balanceOf("));
+        assertTrue(Files.exists(web3jContractsDir.resolve("org/web3j/test/Small.java")));
+    }
+
+    @Test
+    public void generateContractWrappersWithConfigurationCache() throws IOException {
+        final String buildFileContent =
+                "plugins {\n"
+                        + "    id 'org.web3j'\n"
+                        + "}\n"
+                        + "web3j {\n"
+                        + "    generatedPackageName = 'org.web3j.test'\n"
+                        + "}\n"
+                        + "sourceSets {\n"
+                        + "    main {\n"
+                        + "        solidity {\n"
+                        + "            srcDir '"
+                        + sourceDir.toAbsolutePath()
+                        + "'\n"
+                        + "            }\n"
+                        + "        }\n"
+                        + "    }\n"
+                        + "repositories {\n"
+                        + "   mavenCentral()\n"
+                        + "   maven {\n"
+                        + "       url 'https://oss.sonatype.org/content/repositories/snapshots'\n"
+                        + "   }\n"
+                        + "}\n";
+
+        Files.write(buildFile, buildFileContent.getBytes());
+
+        final GradleRunner gradleRunner =
+                GradleRunner.create()
+                        .withProjectDir(testProjectDir.toFile())
+                        .withArguments("build", "--configuration-cache")
+                        .withPluginClasspath()
+                        .forwardOutput();
+
+        final BuildResult success = gradleRunner.build();
+        assertNotNull(success.task(":generateContractWrappers"));
+        assertEquals(SUCCESS, success.task(":generateContractWrappers").getOutcome());
+        assertTrue(success.getOutput().contains("Configuration cache entry stored"));
+
+        final BuildResult upToDate = gradleRunner.build();
+        assertNotNull(upToDate.task(":generateContractWrappers"));
+        assertEquals(UP_TO_DATE, upToDate.task(":generateContractWrappers").getOutcome());
+        assertTrue(upToDate.getOutput().contains("Configuration cache entry reused"));
+    }
+
+    @Test
+    public void contractWrappersTasksNotRealizedForUnrelatedTasks() throws IOException {
+        final String buildFileContent =
+                "plugins {\n"
+                        + "    id 'org.web3j'\n"
+                        + "}\n"
+                        + "sourceSets {\n"
+                        + "    main {\n"
+                        + "        solidity {\n"
+                        + "            srcDir '"
+                        + sourceDir.toAbsolutePath()
+                        + "'\n"
+                        + "            }\n"
+                        + "        }\n"
+                        + "    }\n"
+                        + "tasks.withType(org.web3j.gradle.plugin.GenerateContractWrappers)"
+                        + ".configureEach {\n"
+                        + "    println \"Realized task ${name}\"\n"
+                        + "}\n";
+
+        Files.write(buildFile, buildFileContent.getBytes());
+
+        final BuildResult help =
+                GradleRunner.create()
+                        .withProjectDir(testProjectDir.toFile())
+                        .withArguments("help")
+                        .withPluginClasspath()
+                        .forwardOutput()
+                        .build();
+
+        assertEquals(SUCCESS, help.task(":help").getOutcome());
+        assertFalse(help.getOutput().contains("Realized task"));
+    }
+
+    @Test
+    public void generateContractWrappersPrunesStaleWrappers() throws IOException {
+        final Path abiDir = testProjectDir.resolve("abi/main");
+        Files.createDirectories(abiDir);
+        for (final String contract : new String[] {"Token", "Registry"}) {
+            Files.write(
+                    abiDir.resolve(contract + ".abi"),
+                    ("[" + counterFunction("owner", "address") + "]").getBytes());
+            Files.write(abiDir.resolve(contract + ".bin"), new byte[0]);
+        }
+
+        final String buildFileContent =
+                "plugins {\n"
+                        + "    id 'org.web3j'\n"
+                        + "}\n"
+                        + "web3j {\n"
+                        + "    generatedPackageName = 'org.web3j.test'\n"
+                        + "}\n"
+                        + "sourceSets.main.solidity.destinationDirectory.set(file('abi/main'))\n"
+                        + "tasks.named('compileSolidity') { enabled = false }\n"
+                        + "repositories {\n"
+                        + "   mavenCentral()\n"
+                        + "   maven {\n"
+                        + "       url 'https://oss.sonatype.org/content/repositories/snapshots'\n"
+                        + "   }\n"
+                        + "}\n";
+
+        Files.write(buildFile, buildFileContent.getBytes());
+
+        final BuildResult success =
+                GradleRunner.create()
+                        .withProjectDir(testProjectDir.toFile())
+                        .withArguments("build")
+                        .withPluginClasspath()
+                        .forwardOutput()
+                        .build();
+        assertNotNull(success.task(":generateContractWrappers"));
+        assertEquals(SUCCESS, success.task(":generateContractWrappers").getOutcome());
+
+        final Path web3jContractsDir =
+                testProjectDir.resolve("build/generated/sources/web3j/main/java");
+        final Path tokenContract = web3jContractsDir.resolve("org/web3j/test/Token.java");
+        final Path registryContract = web3jContractsDir.resolve("org/web3j/test/Registry.java");
+        assertTrue(Files.exists(tokenContract));
+        assertTrue(Files.exists(registryContract));
+        assertTrue(
+                Files.exists(
+                        testProjectDir.resolve("build/web3j/generateContractWrappers.manifest")));
+
+        // Files in the output directory not generated by the plugin are kept
+        final Path foreignFile = web3jContractsDir.resolve("org/web3j/test/NOTICE.txt");
+        Files.write(foreignFile, "Not generated".getBytes());
+        final FileTime registryModified = Files.getLastModifiedTime(registryContract);
+
+        // Removing a contract runs incrementally, so the plugin deletes its wrapper from the
+        // previous manifest instead of Gradle cleaning the whole output directory
+        Files.delete(abiDir.resolve("Token.abi"));
+        Files.delete(abiDir.resolve("Token.bin"));
+
+        final BuildResult removed =
+                GradleRunner.create()
+                        .withProjectDir(testProjectDir.toFile())
+                        .withArguments("build", "--info")
+                        .withPluginClasspath()
+                        .forwardOutput()
+                        .build();
+        assertNotNull(removed.task(":generateContractWrappers"));
+        assertEquals(SUCCESS, removed.task(":generateContractWrappers").getOutcome());
+        assertTrue(removed.getOutput().contains("Deleting 1 stale contract wrapper files"));
+        assertFalse(Files.exists(tokenContract));
+        assertTrue(Files.exists(foreignFile));
+        assertEquals(registryModified, Files.getLastModifiedTime(registryContract));
+    }
+
+    @Test
+    public void generateContractWrappersFromSolcStandardJson()
+            throws IOException, URISyntaxException {
+        final Path solcOutputDir = testProjectDir.resolve("solc/main");
+        Files.createDirectories(solcOutputDir);
+        Files.copy(
+                Paths.get(
+                        getClass()
+                                .getClassLoader()
+                                .getResource("solc/standard-output.json")
+                                .toURI()),
+                solcOutputDir.resolve("standard-output.json"));
+
+        final String buildFileContent =
+                "plugins {\n"
+                        + "    id 'org.web3j'\n"
+                        + "}\n"
+                        + "web3j {\n"
+                        + "    generatedPackageName = 'org.web3j.test'\n"
+                        + "    solcJsonOutput = true\n"
+                        + "}\n"
+                        + "sourceSets.main.solidity.destinationDirectory.set(file('solc/main'))\n"
+                        + "tasks.named('compileSolidity') { enabled = false }\n"
+                        + "repositories {\n"
+                        + "   mavenCentral()\n"
+                        + "   maven {\n"
+                        + "       url 'https://oss.sonatype.org/content/repositories/snapshots'\n"
+                        + "   }\n"
+                        + "}\n";
+
+        Files.write(buildFile, buildFileContent.getBytes());
+
+        final BuildResult success =
+                GradleRunner.create()
+                        .withProjectDir(testProjectDir.toFile())
+                        .withArguments("build")
+                        .withPluginClasspath()
+                        .forwardOutput()
+                        .build();
+        assertNotNull(success.task(":generateContractWrappers"));
+        assertEquals(SUCCESS, success.task(":generateContractWrappers").getOutcome());
+
+        final Path greeterContract =
+                testProjectDir.resolve(
+                        "build/generated/sources/web3j/main/java/org/web3j/test/Greeter.java");
+        assertTrue(Files.exists(greeterContract));
+        assertTrue(new String(Files.readAllBytes(greeterContract)).contains("greet()"));
+    }
+
+    /**
+     * Builds the ABI of a contract with a function taking a <code>Lib.Order</code> struct, given
+     * its comma separated components, e.g. <code>address maker,uint256 amount</code>.
+     */
+    private static String orderAbi(final String function, final String components) {
+        final StringBuilder abi =
+                new StringBuilder("[{\"type\":\"function\",\"name\":\"")
+                        .append(function)
+                        .append("\",\"stateMutability\":\"nonpayable\",\"outputs\":[],")
+                        .append("\"inputs\":[{\"name\":\"order\",\"type\":\"tuple\",")
+                        .append("\"internalType\":\"struct Lib.Order\",\"components\":[");
+        final String[] fields = components.split(",");
+        for (int i = 0; i < fields.length; i++) {
+            final String[] field = fields[i].split(" ");
+            abi.append(i == 0 ? "" : ",")
+                    .append("{\"name\":\"")
+                    .append(field[1])
+                    .append("\",\"type\":\"")
+                    .append(field[0])
+                    .append("\",\"internalType\":\"")
+                    .append(field[0])
+                    .append("\"}");
+        }
+        return abi.append("]}]}]").toString();
+    }
+
+    private static String counterFunction(final String name, final String type) {
+        return "{\"type\":\"function\",\"name\":\""
+                + name
+                + "\",\"stateMutability\":\"view\",\"inputs\":[],"
+                + "\"outputs\":[{\"name\":\"\",\"type\":\""
+                + type
+                + "\"}]}";
+    }
 }